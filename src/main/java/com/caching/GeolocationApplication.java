@@ -4,10 +4,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @ComponentScan(basePackages = "com.caching")
 @SpringBootApplication
 @EnableCaching
+@EnableScheduling
 public class GeolocationApplication {
     public static void main(String[] args) {
         SpringApplication.run(GeolocationApplication.class, args);
@@ -1,17 +1,112 @@
 package com.caching.config;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.concurrent.TimeUnit;
+
 
 @Slf4j
 @Configuration
 public class AppConfig {
 
+    /**
+     * Maximum number of pooled connections across all routes.
+     */
+    @Value("${http-client.max-total-connections:200}")
+    private int maxTotalConnections;
+
+    /**
+     * Maximum number of pooled connections per route (host).
+     */
+    @Value("${http-client.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    /**
+     * Timeout in milliseconds for establishing a connection.
+     */
+    @Value("${http-client.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    /**
+     * Timeout in milliseconds waiting for response data.
+     */
+    @Value("${http-client.read-timeout-ms:5000}")
+    private int readTimeoutMs;
+
+    /**
+     * Timeout in milliseconds waiting for a connection from the pool.
+     */
+    @Value("${http-client.connection-request-timeout-ms:1000}")
+    private int connectionRequestTimeoutMs;
+
+    /**
+     * Idle time in milliseconds after which pooled connections are closed.
+     */
+    @Value("${http-client.idle-eviction-ms:30000}")
+    private long idleEvictionMs;
+
+    /**
+     * Maximum time in milliseconds a connection is kept alive when the server does not specify one.
+     */
+    @Value("${http-client.keep-alive-ms:30000}")
+    private long keepAliveMs;
+
+    /**
+     * Whether Nagle's algorithm is disabled on upstream sockets.
+     */
+    @Value("${http-client.tcp-no-delay:true}")
+    private boolean tcpNoDelay;
+
+    /**
+     * Pooled HTTP client for upstream calls, reusing keep-alive connections instead of opening a new
+     * connection per request.
+     *
+     * @return the pooled HTTP client.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotalConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setDefaultSocketConfig(SocketConfig.custom()
+                .setTcpNoDelay(tcpNoDelay)
+                .setSoKeepAlive(true)
+                .setSoTimeout(readTimeoutMs)
+                .build());
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMs)
+                .setSocketTimeout(readTimeoutMs)
+                .setConnectionRequestTimeout(connectionRequestTimeoutMs)
+                .build();
+
+        log.info("Creating pooled HTTP client with maxTotal={}, maxPerRoute={}, connectTimeout={} ms, readTimeout={} ms",
+                maxTotalConnections, maxConnectionsPerRoute, connectTimeoutMs, readTimeoutMs);
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMs) : keepAliveMs;
+                })
+                .evictIdleConnections(idleEvictionMs, TimeUnit.MILLISECONDS)
+                .evictExpiredConnections()
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(CloseableHttpClient httpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package com.caching.config;
+
+import com.caching.service.offheap.OffHeapCache;
+import com.caching.service.spatial.CoordinateCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.CompositeCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cache configuration backing Spring's caching abstraction with Caffeine.
+ *
+ * <p>Every cache listed under {@code caching.caches} in the application properties is registered with
+ * its own size or weight bound and expiry policy, as an {@link OffHeapCache} when it has an off-heap
+ * capacity, or, for the reverse geocoding cache with exact coordinate keys, as a {@link CoordinateCache} when it
+ * has a coordinate store capacity. Caches that are not configured are created on demand with Caffeine's defaults.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(CacheSpecProperties.class)
+public class CacheConfig {
+
+    /**
+     * Name of the only cache whose keys can be exact coordinate pairs.
+     */
+    private static final String REVERSE_GEOCODING_CACHE = "reverse-geocoding";
+
+    /**
+     * Builds the {@link CacheManager} used by {@code @Cacheable} and the cache tracking service. Caches with
+     * an off-heap or coordinate store capacity are served by a separate manager placed in front of the
+     * Caffeine one.
+     *
+     * @param cacheSpecProperties the per-cache specifications from application properties.
+     * @param reverseKeyMode      the reverse geocoding key mode, retrieved from application properties.
+     * @return a Caffeine-backed cache manager.
+     */
+    @Bean
+    public CacheManager cacheManager(CacheSpecProperties cacheSpecProperties,
+                                     @Value("${reverse-geocoding.key-mode:exact}") String reverseKeyMode) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        List<Cache> offHeapCaches = new ArrayList<>();
+        cacheSpecProperties.getCaches().forEach((cacheName, spec) -> {
+            if (spec.getCoordinateStoreCapacity() != null) {
+                if (REVERSE_GEOCODING_CACHE.equals(cacheName) && "exact".equalsIgnoreCase(reverseKeyMode)) {
+                    offHeapCaches.add(new CoordinateCache(cacheName, spec.getCoordinateStoreCapacity(),
+                            spec.getExpireAfterWrite(), spec.getExpireAfterAccess()));
+                    log.info("Registered coordinate cache {} with capacity={}, expireAfterAccess={}, expireAfterWrite={}, refreshAfterWrite={}",
+                            cacheName, spec.getCoordinateStoreCapacity(), spec.getExpireAfterAccess(), spec.getExpireAfterWrite(),
+                            spec.getRefreshAfterWrite());
+                    return;
+                }
+                log.warn("Ignoring coordinate store capacity of cache {}, which does not use exact coordinate keys", cacheName);
+            }
+            if (spec.getOffHeapCapacity() != null) {
+                offHeapCaches.add(new OffHeapCache(cacheName, spec.getOffHeapCapacity().toBytes(), spec.getExpireAfterWrite()));
+                log.info("Registered off-heap cache {} with capacity={}, expireAfterWrite={}, refreshAfterWrite={}",
+                        cacheName, spec.getOffHeapCapacity(), spec.getExpireAfterWrite(), spec.getRefreshAfterWrite());
+                return;
+            }
+            cacheManager.registerCustomCache(cacheName, buildCaffeine(spec).build());
+            log.info("Registered Caffeine cache {} with maximumSize={}, maximumWeight={}, expireAfterAccess={}, expireAfterWrite={}, refreshAfterWrite={}",
+                    cacheName, spec.getMaximumSize(), spec.getMaximumWeight(), spec.getExpireAfterAccess(), spec.getExpireAfterWrite(),
+                    spec.getRefreshAfterWrite());
+        });
+        if (offHeapCaches.isEmpty()) {
+            return cacheManager;
+        }
+        SimpleCacheManager offHeapCacheManager = new SimpleCacheManager();
+        offHeapCacheManager.setCaches(offHeapCaches);
+        offHeapCacheManager.afterPropertiesSet();
+        return new CompositeCacheManager(offHeapCacheManager, cacheManager);
+    }
+
+    /**
+     * Translates a cache specification into a Caffeine builder.
+     *
+     * @param spec the cache specification.
+     * @return a configured Caffeine builder.
+     */
+    private Caffeine<Object, Object> buildCaffeine(CacheSpecProperties.CacheSpec spec) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (spec.getMaximumWeight() != null) {
+            builder.maximumWeight(spec.getMaximumWeight().toBytes()).weigher(CacheEntryWeigher.INSTANCE);
+        } else if (spec.getMaximumSize() != null) {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+        if (spec.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(spec.getExpireAfterAccess());
+        }
+        if (spec.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(spec.getExpireAfterWrite());
+        }
+        if (spec.isRecordStats()) {
+            builder.recordStats();
+        }
+        return builder;
+    }
+}
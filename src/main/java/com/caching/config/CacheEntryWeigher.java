@@ -0,0 +1,102 @@
+package com.caching.config;
+
+import com.caching.dto.out.AddressDTO;
+import com.caching.dto.out.LocationDTO;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import java.util.Collection;
+
+/**
+ * Caffeine {@link Weigher} estimating the heap footprint of a cache entry in bytes.
+ *
+ * <p>Estimates assume a 64-bit JVM with compressed oops (12-byte object headers, 4-byte references, 8-byte
+ * alignment) and compact strings, which store Latin-1 text in one byte per character. They cover the key,
+ * the value and a fixed allowance for Caffeine's node and hash table slot. Types the weigher does not know
+ * are charged a flat {@link #UNKNOWN_OBJECT_BYTES}.
+ */
+public final class CacheEntryWeigher implements Weigher<Object, Object> {
+
+    /**
+     * Shared instance; the weigher is stateless.
+     */
+    public static final CacheEntryWeigher INSTANCE = new CacheEntryWeigher();
+
+    /**
+     * Allowance for Caffeine's entry node, its hash table slot and policy bookkeeping.
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    /**
+     * Charge for objects of types the weigher has no estimate for.
+     */
+    private static final int UNKNOWN_OBJECT_BYTES = 64;
+
+    private static final int OBJECT_HEADER_BYTES = 12;
+
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private static final int REFERENCE_BYTES = 4;
+
+    private CacheEntryWeigher() {
+    }
+
+    @Override
+    public int weigh(Object key, Object value) {
+        long weight = ENTRY_OVERHEAD_BYTES + estimate(key) + estimate(value);
+        return (int) Math.min(Integer.MAX_VALUE, weight);
+    }
+
+    /**
+     * Estimates the retained size of a cache key or value in bytes.
+     *
+     * @param object the object to estimate, may be {@code null}.
+     * @return the estimated size in bytes.
+     */
+    public static long estimate(Object object) {
+        if (object == null) {
+            return 0;
+        }
+        if (object instanceof String) {
+            return estimateString((String) object);
+        }
+        if (object instanceof LocationDTO) {
+            return align(OBJECT_HEADER_BYTES + 2 * Double.BYTES);
+        }
+        if (object instanceof AddressDTO) {
+            return align(OBJECT_HEADER_BYTES + REFERENCE_BYTES) + estimate(((AddressDTO) object).getAddress());
+        }
+        if (object instanceof Number || object instanceof Boolean) {
+            return align(OBJECT_HEADER_BYTES + Long.BYTES);
+        }
+        if (object instanceof Collection) {
+            Collection<?> collection = (Collection<?>) object;
+            long size = align(OBJECT_HEADER_BYTES + REFERENCE_BYTES)
+                    + align(ARRAY_HEADER_BYTES + (long) collection.size() * REFERENCE_BYTES);
+            for (Object element : collection) {
+                size += estimate(element);
+            }
+            return size;
+        }
+        return UNKNOWN_OBJECT_BYTES;
+    }
+
+    /**
+     * Estimates a string as its object plus its backing byte array, using one byte per character when every
+     * character is Latin-1 and two otherwise.
+     */
+    private static long estimateString(String value) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return align(OBJECT_HEADER_BYTES + 2 * Integer.BYTES + REFERENCE_BYTES)
+                + align(ARRAY_HEADER_BYTES + (long) value.length() * bytesPerChar);
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
@@ -0,0 +1,103 @@
+package com.caching.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-cache Caffeine specifications bound from the {@code caching.caches.<cache-name>.*} properties.
+ *
+ * <p>Each entry describes the bounds of one named cache, for example
+ * {@code caching.caches.geocoding.maximum-weight=4MB} or
+ * {@code caching.caches.reverse-geocoding.expire-after-access=5m}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "caching")
+public class CacheSpecProperties {
+
+    /**
+     * Cache specifications keyed by cache name.
+     */
+    private Map<String, CacheSpec> caches = new LinkedHashMap<>();
+
+    /**
+     * Returns the specification for the given cache, or {@code null} if none is configured.
+     *
+     * @param cacheName the name of the cache.
+     * @return the cache specification, or {@code null}.
+     */
+    public CacheSpec getSpec(String cacheName) {
+        return caches.get(cacheName);
+    }
+
+    /**
+     * Bounds and policies for a single cache.
+     */
+    @Getter
+    @Setter
+    public static class CacheSpec {
+
+        /**
+         * Maximum number of entries. Size-bounded caches are evicted by Caffeine's W-TinyLFU policy,
+         * which admits new entries only when they are expected to be used more often than the
+         * entry they would replace. {@code null} leaves the cache unbounded.
+         */
+        private Long maximumSize;
+
+        /**
+         * Maximum total estimated heap footprint of the entries, for example {@code 4MB}. Entries are weighed
+         * by {@link CacheEntryWeigher}, so long addresses count for more than short ones and the bound
+         * translates directly into heap. Takes precedence over {@link #maximumSize}, which Caffeine does not
+         * allow to be combined with it. {@code null} leaves the cache unbounded by weight.
+         */
+        private DataSize maximumWeight;
+
+        /**
+         * Capacity of an off-heap store for the cache, for example {@code 512MB}. When set, the cache is an
+         * {@link com.caching.service.offheap.OffHeapCache} instead of a Caffeine cache: its entries live in
+         * direct memory, the capacity replaces {@link #maximumSize} and {@link #maximumWeight}, the oldest
+         * written entries are evicted first, and {@link #expireAfterAccess} is not applied. Only the
+         * geocoding and reverse geocoding caches hold entries that can be stored off-heap. The JVM's
+         * {@code -XX:MaxDirectMemorySize} must leave room for the capacity plus about a third for the index.
+         */
+        private DataSize offHeapCapacity;
+
+        /**
+         * Number of entries of a primitive coordinate store for the cache, for example {@code 100000}. When set
+         * on the reverse geocoding cache and {@code reverse-geocoding.key-mode} is {@code exact}, the cache is a
+         * {@link com.caching.service.spatial.CoordinateCache} holding its keys in primitive arrays: the capacity
+         * replaces {@link #maximumSize} and {@link #maximumWeight}, the oldest written entries are evicted first,
+         * and both expiry durations are applied. It takes precedence over {@link #offHeapCapacity}. Ignored for
+         * other caches and in {@code geohash} mode.
+         */
+        private Integer coordinateStoreCapacity;
+
+        /**
+         * Time after the last read or write after which an entry expires, or {@code null} for none.
+         */
+        private Duration expireAfterAccess;
+
+        /**
+         * Time after the last write after which an entry expires, or {@code null} for none.
+         */
+        private Duration expireAfterWrite;
+
+        /**
+         * Soft time-to-live after the last write. An entry older than this is still served, but is
+         * refreshed asynchronously so that it is replaced before {@link #expireAfterWrite} removes it.
+         * {@code null} disables refresh-ahead for the cache.
+         */
+        private Duration refreshAfterWrite;
+
+        /**
+         * Whether Caffeine should record hit, miss and eviction statistics for the cache.
+         */
+        private boolean recordStats;
+    }
+}
@@ -1,8 +1,16 @@
 package com.caching.controller;
 
+import com.caching.dto.in.BatchGeocodingRequestDTO;
+import com.caching.dto.in.BatchReverseGeocodingRequestDTO;
 import com.caching.dto.out.AddressDTO;
+import com.caching.dto.out.BatchGeocodingResultDTO;
+import com.caching.dto.out.BatchReverseGeocodingResultDTO;
 import com.caching.dto.out.LocationDTO;
 import com.caching.exception.InvalidAddressException;
+import com.caching.exception.RateLimitExceededException;
+import com.caching.exception.UpstreamTimeoutException;
+import com.caching.exception.UpstreamUnavailableException;
+import com.caching.service.batch.BatchGeocodingService;
 import com.caching.service.core.GeocodingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +18,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.validation.Valid;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Controller class for handling geocoding and reverse geocoding requests.
  *
@@ -25,6 +37,8 @@ public class GeocodingController {
 
     private final GeocodingService geocodingService;
 
+    private final BatchGeocodingService batchGeocodingService;
+
     /**
      * Endpoint for geocoding an address.
      *
@@ -36,6 +50,9 @@ public class GeocodingController {
      *   <li>200 OK: Returns the {@link LocationDTO} with latitude and longitude.</li>
      *   <li>400 Bad Request: If the address is invalid or an {@link InvalidAddressException} is thrown.</li>
      *   <li>404 Not Found: If no location data is found for the given address.</li>
+     *   <li>429 Too Many Requests: If the upstream rate limit leaves no capacity for the request.</li>
+     *   <li>503 Service Unavailable: If the provider circuit is open and no stale result is available.</li>
+     *   <li>504 Gateway Timeout: If an identical in-flight request did not complete in time.</li>
      *   <li>500 Internal Server Error: If an unexpected error occurs.</li>
      * </ul>
      *
@@ -51,6 +68,8 @@ public class GeocodingController {
         } catch (InvalidAddressException e) {
             // Catch invalid address and return a 400 Bad Request response with an error message
             throw new InvalidAddressException(e.getMessage());
+        } catch (UpstreamTimeoutException | RateLimitExceededException | UpstreamUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             // Handle other exceptions, return INTERNAL SERVER ERROR if something goes wrong
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
@@ -58,6 +77,29 @@ public class GeocodingController {
     }
 
 
+    /**
+     * Endpoint for geocoding a batch of addresses.
+     *
+     * <p>Duplicate and equivalent addresses are resolved once, cache hits are served in bulk, and only the
+     * misses are fetched from the external API with bounded parallelism. A failure for one address is
+     * reported in its own result instead of failing the batch.
+     *
+     * <p>Possible responses:
+     * <ul>
+     *   <li>200 OK: Returns one {@link BatchGeocodingResultDTO} per input address, in input order.</li>
+     *   <li>400 Bad Request: If the request body is malformed, lists no addresses or a blank address, or the
+     *   batch is too large.</li>
+     * </ul>
+     *
+     * @param request the batch of addresses to geocode.
+     * @return a {@link ResponseEntity} containing the per-address results.
+     */
+    @PostMapping("/geocoding/batch")
+    public ResponseEntity<List<BatchGeocodingResultDTO>> getBatchGeocoding(@Valid @RequestBody BatchGeocodingRequestDTO request) {
+        log.info("Getting batch geocoding for {} addresses from the Batch Geocoding Service", request.getAddresses().size());
+        return ResponseEntity.ok(batchGeocodingService.getGeocoding(request.getAddresses()));
+    }
+
     /**
      * Endpoint for reverse geocoding a location.
      *
@@ -67,6 +109,9 @@ public class GeocodingController {
      * <p>Possible responses:
      * <ul>
      *   <li>200 OK: Returns the address as a plain string.</li>
+     *   <li>429 Too Many Requests: If the upstream rate limit leaves no capacity for the request.</li>
+     *   <li>503 Service Unavailable: If the provider circuit is open and no stale result is available.</li>
+     *   <li>504 Gateway Timeout: If an identical in-flight request did not complete in time.</li>
      *   <li>500 Internal Server Error: If an unexpected error occurs.</li>
      * </ul>
      *
@@ -84,6 +129,8 @@ public class GeocodingController {
         } catch (InvalidAddressException e) {
             // Catch invalid address and return a 400 Bad Request response with an error message
             throw new InvalidAddressException(e.getMessage());
+        } catch (UpstreamTimeoutException | RateLimitExceededException | UpstreamUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             // Handle general exceptions
             log.error("Error occurred while fetching reverse geocoding data: {}", e.getMessage());
@@ -91,6 +138,64 @@ public class GeocodingController {
         }
     }
 
+    /**
+     * Endpoint for reverse geocoding a batch of points.
+     *
+     * <p>Duplicate points, and points within the spatial cache radius of each other or of a previously
+     * resolved point, are resolved once. Cache hits are served in bulk and only the remaining unique points
+     * are fetched from the external API with bounded parallelism. A failure for one point is reported in its
+     * own result instead of failing the batch.
+     *
+     * <p>Possible responses:
+     * <ul>
+     *   <li>200 OK: Returns one {@link BatchReverseGeocodingResultDTO} per input point, in input order.</li>
+     *   <li>400 Bad Request: If the request body is invalid or the batch is too large.</li>
+     * </ul>
+     *
+     * @param request the batch of points to reverse geocode.
+     * @return a {@link ResponseEntity} containing the per-point results.
+     */
+    @PostMapping("/reverse-geocoding/batch")
+    public ResponseEntity<List<BatchReverseGeocodingResultDTO>> getBatchReverseGeocoding(
+            @Valid @RequestBody BatchReverseGeocodingRequestDTO request) {
+        log.info("Getting batch reverse geocoding for {} points from the Batch Geocoding Service", request.getPoints().size());
+        return ResponseEntity.ok(batchGeocodingService.getReverseGeocoding(request.getPoints()));
+    }
+
+    /**
+     * Non-blocking endpoint for geocoding an address.
+     *
+     * <p>Behaves like {@code GET /geocoding}, but releases the servlet thread while the external API is
+     * queried; the response is written when the returned future completes. Errors are mapped by the
+     * global exception handler.
+     *
+     * @param address the address to geocode.
+     * @return a future completed with a {@link ResponseEntity} containing the geolocation data.
+     */
+    @GetMapping("/async/geocoding")
+    public CompletableFuture<ResponseEntity<LocationDTO>> getGeocodingAsync(@RequestParam String address) {
+        log.info("Getting geocoding asynchronously for address: {} from the Geocoding Service", address);
+        return geocodingService.getGeocodingAsync(address).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Non-blocking endpoint for reverse geocoding a location.
+     *
+     * <p>Behaves like {@code GET /reverse-geocoding}, but releases the servlet thread while the external API
+     * is queried; the response is written when the returned future completes. Errors are mapped by the
+     * global exception handler.
+     *
+     * @param latitude the latitude of the location to reverse geocode.
+     * @param longitude the longitude of the location to reverse geocode.
+     * @return a future completed with a {@link ResponseEntity} containing the address.
+     */
+    @GetMapping("/async/reverse-geocoding")
+    public CompletableFuture<ResponseEntity<String>> getReverseGeocodingAsync(@RequestParam Double latitude, @RequestParam Double longitude) {
+        log.info("Getting reverse geocoding asynchronously for latitude: {} and longitude: {} from the Geocoding Service", latitude, longitude);
+        return geocodingService.getReverseGeocodingAsync(latitude, longitude)
+                .thenApply(addressDTO -> ResponseEntity.ok(addressDTO.getAddress()));
+    }
+
     @GetMapping("/")
     public ResponseEntity<String> getHomePage(){
         return ResponseEntity.ok("Welcome Assists to the Geo Coding API.");
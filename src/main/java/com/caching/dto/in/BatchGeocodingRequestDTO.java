@@ -0,0 +1,17 @@
+package com.caching.dto.in;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@Setter
+public class BatchGeocodingRequestDTO {
+    @NotNull
+    private List<@NotBlank String> addresses;
+}
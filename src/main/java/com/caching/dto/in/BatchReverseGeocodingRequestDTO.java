@@ -0,0 +1,16 @@
+package com.caching.dto.in;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@Setter
+public class BatchReverseGeocodingRequestDTO {
+    @NotNull
+    private List<CoordinateDTO> points;
+}
@@ -0,0 +1,15 @@
+package com.caching.dto.in;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@NoArgsConstructor
+@Setter
+@AllArgsConstructor
+public class CoordinateDTO {
+    private Double latitude;
+    private Double longitude;
+}
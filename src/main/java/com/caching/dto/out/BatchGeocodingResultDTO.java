@@ -0,0 +1,16 @@
+package com.caching.dto.out;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@NoArgsConstructor
+@Setter
+@AllArgsConstructor
+public class BatchGeocodingResultDTO {
+    private String address;
+    private LocationDTO location;
+    private String error;
+}
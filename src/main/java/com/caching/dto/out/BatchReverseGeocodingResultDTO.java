@@ -0,0 +1,17 @@
+package com.caching.dto.out;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@NoArgsConstructor
+@Setter
+@AllArgsConstructor
+public class BatchReverseGeocodingResultDTO {
+    private Double latitude;
+    private Double longitude;
+    private String address;
+    private String error;
+}
@@ -0,0 +1,7 @@
+package com.caching.exception;
+
+public class UpstreamTimeoutException extends RuntimeException {
+    public UpstreamTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -1,8 +1,12 @@
 package com.caching.model;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 @Getter
+@NoArgsConstructor
+@AllArgsConstructor
 public class Datum{
     private double latitude;
     private double longitude;
@@ -0,0 +1,298 @@
+/**
+ * Service handling batch geocoding and reverse geocoding requests.
+ *
+ * <p>A batch is deduplicated by cache key, answered from the in-memory cache in bulk, and only the
+ * remaining misses are resolved through the {@link GeocodingService} on a bounded worker pool. Reverse
+ * geocoding batches additionally collapse near-duplicate points: a point within the spatial cache radius of
+ * a previously resolved point, or of another point in the same batch, shares that point's result. Results
+ * are returned in input order, with a per-item error instead of failing the whole batch.
+ */
+package com.caching.service.batch;
+
+import com.caching.dto.in.CoordinateDTO;
+import com.caching.dto.out.AddressDTO;
+import com.caching.dto.out.BatchGeocodingResultDTO;
+import com.caching.dto.out.BatchReverseGeocodingResultDTO;
+import com.caching.dto.out.LocationDTO;
+import com.caching.exception.InvalidAddressException;
+import com.caching.exception.InvalidBatchRequestException;
+import com.caching.exception.RateLimitExceededException;
+import com.caching.exception.UpstreamUnavailableException;
+import com.caching.service.cacheeviction.CacheTrackingService;
+import com.caching.service.core.GeocodingService;
+import com.caching.service.normalization.AddressNormalizer;
+import com.caching.service.spatial.ReverseGeocodingKeyResolver;
+import com.caching.service.spatial.SpatialAddressIndex;
+import com.caching.service.spatial.SpatialGrid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Service
+public class BatchGeocodingService {
+
+    /**
+     * Spring's cache manager, used for bulk cache lookups.
+     */
+    private final CacheManager cacheManager;
+
+    /**
+     * Service resolving cache misses, with coalescing, persistence and refresh-ahead.
+     */
+    private final GeocodingService geocodingService;
+
+    /**
+     * Service tracking cache access times for bulk cache hits.
+     */
+    private final CacheTrackingService cacheTrackingService;
+
+    /**
+     * Normalizer producing the canonical address used for deduplication and as the cache key.
+     */
+    private final AddressNormalizer addressNormalizer;
+
+    /**
+     * Resolver for the reverse geocoding cache key of a point.
+     */
+    private final ReverseGeocodingKeyResolver reverseGeocodingKeyResolver;
+
+    /**
+     * Spatial index of previously resolved points, also defining the near-duplicate radius.
+     */
+    private final SpatialAddressIndex spatialAddressIndex;
+
+    /**
+     * Maximum number of items accepted in a single batch, retrieved from application properties.
+     */
+    @Value("${batch.max-size:10000}")
+    private int maxBatchSize;
+
+    /**
+     * Maximum number of cache misses resolved concurrently across all batches, retrieved from application properties.
+     */
+    @Value("${batch.max-parallelism:16}")
+    private int maxParallelism;
+
+    /**
+     * Worker pool resolving cache misses.
+     */
+    private ExecutorService batchExecutor;
+
+    /**
+     * Constructs a new {@code BatchGeocodingService}.
+     *
+     * @param cacheManager                the cache manager used for bulk cache lookups.
+     * @param geocodingService            the service resolving cache misses.
+     * @param cacheTrackingService        the service tracking cache access times.
+     * @param addressNormalizer           the normalizer producing canonical addresses.
+     * @param reverseGeocodingKeyResolver the resolver for reverse geocoding cache keys.
+     * @param spatialAddressIndex         the spatial index of previously resolved points.
+     */
+    public BatchGeocodingService(CacheManager cacheManager, GeocodingService geocodingService,
+                                 CacheTrackingService cacheTrackingService, AddressNormalizer addressNormalizer,
+                                 ReverseGeocodingKeyResolver reverseGeocodingKeyResolver,
+                                 SpatialAddressIndex spatialAddressIndex) {
+        this.cacheManager = cacheManager;
+        this.geocodingService = geocodingService;
+        this.cacheTrackingService = cacheTrackingService;
+        this.addressNormalizer = addressNormalizer;
+        this.reverseGeocodingKeyResolver = reverseGeocodingKeyResolver;
+        this.spatialAddressIndex = spatialAddressIndex;
+    }
+
+    /**
+     * Starts the worker pool.
+     */
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        batchExecutor = Executors.newFixedThreadPool(maxParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "batch-geocoding-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stops the worker pool.
+     */
+    @PreDestroy
+    public void stop() {
+        batchExecutor.shutdownNow();
+    }
+
+    /**
+     * Geocodes a batch of addresses.
+     *
+     * @param addresses the addresses to geocode.
+     * @return one result per input address, in input order.
+     * @throws InvalidBatchRequestException if the batch exceeds the maximum size.
+     */
+    public List<BatchGeocodingResultDTO> getGeocoding(List<String> addresses) {
+        validateSize(addresses.size());
+
+        Map<String, LocationDTO> hits = new LinkedHashMap<>();
+        Map<String, CompletableFuture<LocationDTO>> misses = new LinkedHashMap<>();
+        Cache cache = cacheManager.getCache("geocoding");
+        for (String address : addresses) {
+            String cacheKey = addressNormalizer.normalize(address);
+            if (cacheKey == null || cacheKey.isEmpty() || hits.containsKey(cacheKey) || misses.containsKey(cacheKey)) {
+                continue;
+            }
+            LocationDTO cached = cache != null ? cache.get(cacheKey, LocationDTO.class) : null;
+            if (cached != null) {
+                cacheTrackingService.updateGeocodingAccessTime(cacheKey);
+                hits.put(cacheKey, cached);
+            } else {
+                misses.put(cacheKey, CompletableFuture.supplyAsync(() -> geocodingService.getGeocoding(address), batchExecutor));
+            }
+        }
+        log.info("Batch geocoding of {} addresses: {} unique cache hits, {} unique misses",
+                addresses.size(), hits.size(), misses.size());
+
+        List<BatchGeocodingResultDTO> results = new ArrayList<>(addresses.size());
+        for (String address : addresses) {
+            String cacheKey = addressNormalizer.normalize(address);
+            if (cacheKey == null || cacheKey.isEmpty()) {
+                results.add(new BatchGeocodingResultDTO(address, null, "Invalid address: No Address is passed"));
+            } else if (hits.containsKey(cacheKey)) {
+                results.add(new BatchGeocodingResultDTO(address, hits.get(cacheKey), null));
+            } else {
+                try {
+                    results.add(new BatchGeocodingResultDTO(address, misses.get(cacheKey).join(), null));
+                } catch (CompletionException e) {
+                    results.add(new BatchGeocodingResultDTO(address, null, errorMessage(e.getCause())));
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Reverse geocodes a batch of points.
+     *
+     * <p>Each point is resolved, in order of preference, from: an earlier point in the batch with the same
+     * cache key, the reverse geocoding cache, a previously resolved point within the spatial radius, or an
+     * earlier unresolved point of the batch within the spatial radius. Only the remaining unique points are
+     * sent to the upstream service.
+     *
+     * @param points the points to reverse geocode.
+     * @return one result per input point, in input order.
+     * @throws InvalidBatchRequestException if the batch exceeds the maximum size.
+     */
+    public List<BatchReverseGeocodingResultDTO> getReverseGeocoding(List<CoordinateDTO> points) {
+        validateSize(points.size());
+
+        Cache cache = cacheManager.getCache("reverse-geocoding");
+        Map<Object, CompletableFuture<AddressDTO>> resultsByKey = new LinkedHashMap<>();
+        SpatialGrid<CompletableFuture<AddressDTO>> pending = new SpatialGrid<>(spatialAddressIndex.getRadiusMeters());
+        List<CompletableFuture<AddressDTO>> pointResults = new ArrayList<>(points.size());
+        int hits = 0;
+        int upstream = 0;
+        for (CoordinateDTO point : points) {
+            if (!isValid(point)) {
+                pointResults.add(null);
+                continue;
+            }
+            double latitude = point.getLatitude();
+            double longitude = point.getLongitude();
+            Object cacheKey = reverseGeocodingKeyResolver.resolveKey(point.getLatitude(), point.getLongitude());
+            CompletableFuture<AddressDTO> result = resultsByKey.get(cacheKey);
+            if (result == null) {
+                AddressDTO cached = cache != null ? cache.get(cacheKey, AddressDTO.class) : null;
+                if (cached == null) {
+                    cached = spatialAddressIndex.findNearby(latitude, longitude);
+                }
+                if (cached != null) {
+                    cacheTrackingService.updateReverseGeocodingAccessTime(cacheKey);
+                    result = CompletableFuture.completedFuture(cached);
+                    hits++;
+                } else if (spatialAddressIndex.isEnabled()) {
+                    SpatialGrid.Match<CompletableFuture<AddressDTO>> nearby = pending.findNearest(latitude, longitude, future -> true);
+                    result = nearby != null ? nearby.getValue() : null;
+                }
+                if (result == null) {
+                    result = CompletableFuture.supplyAsync(
+                            () -> geocodingService.getReverseGeocoding(latitude, longitude), batchExecutor);
+                    pending.put(latitude, longitude, result);
+                    upstream++;
+                }
+                resultsByKey.put(cacheKey, result);
+            }
+            pointResults.add(result);
+        }
+        log.info("Batch reverse geocoding of {} points: {} unique keys, {} cache hits, {} upstream lookups",
+                points.size(), resultsByKey.size(), hits, upstream);
+
+        List<BatchReverseGeocodingResultDTO> results = new ArrayList<>(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            CoordinateDTO point = points.get(i);
+            Double latitude = point != null ? point.getLatitude() : null;
+            Double longitude = point != null ? point.getLongitude() : null;
+            CompletableFuture<AddressDTO> result = pointResults.get(i);
+            if (result == null) {
+                results.add(new BatchReverseGeocodingResultDTO(latitude, longitude, null,
+                        "Invalid latitude or longitude: " + latitude + ", " + longitude));
+                continue;
+            }
+            try {
+                results.add(new BatchReverseGeocodingResultDTO(latitude, longitude, result.join().getAddress(), null));
+            } catch (CompletionException e) {
+                results.add(new BatchReverseGeocodingResultDTO(latitude, longitude, null, errorMessage(e.getCause())));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns whether a point has both coordinates within their valid ranges.
+     *
+     * @param point the point to check.
+     * @return {@code true} if the point can be reverse geocoded.
+     */
+    private boolean isValid(CoordinateDTO point) {
+        return point != null && point.getLatitude() != null && point.getLongitude() != null
+                && Math.abs(point.getLatitude()) <= 90d && Math.abs(point.getLongitude()) <= 180d;
+    }
+
+    /**
+     * Rejects batches larger than the configured maximum size.
+     *
+     * @param size the number of items in the batch.
+     */
+    private void validateSize(int size) {
+        if (size > maxBatchSize) {
+            throw new InvalidBatchRequestException("Batch size " + size + " exceeds the maximum of " + maxBatchSize);
+        }
+    }
+
+    /**
+     * Converts the failure of a single item into the message reported for it.
+     *
+     * @param cause the exception thrown while resolving the item.
+     * @return the per-item error message.
+     */
+    private String errorMessage(Throwable cause) {
+        if (cause instanceof InvalidAddressException || cause instanceof RateLimitExceededException
+                || cause instanceof UpstreamUnavailableException) {
+            return cause.getMessage();
+        }
+        log.error("Error occurred while resolving batch item: {}", cause.getMessage());
+        return "An error occurred while fetching geocoding data.";
+    }
+}
@@ -0,0 +1,223 @@
+package com.caching.service.cacheeviction;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Access-ordered record of cache keys and their last access times.
+ *
+ * <p>Keys are spread by hash over a fixed number of stripes, each an access-ordered {@link LinkedHashMap}
+ * guarded by its own lock, so request threads touching different keys rarely contend and never wait for a
+ * single global lock. Within a stripe the least recently used key is always at the head, so touching a key
+ * is O(1). The maintenance pass removes keys by comparing the heads of all stripes and taking the oldest,
+ * which keeps eviction in least recently used order across the whole tracker at a cost proportional to the
+ * number of stripes, independent of the number of tracked keys.
+ *
+ * <p>The tracker also keeps the total weight of its keys as estimated by the weigher it was created with,
+ * so that trimming can be driven by an estimated footprint in bytes rather than by the number of keys.
+ *
+ * @param <K> the type of the tracked cache keys.
+ */
+public class AccessOrderTracker<K> {
+
+    /**
+     * Number of stripes, a power of two.
+     */
+    private static final int STRIPES = 16;
+
+    /**
+     * Stripes holding the keys, selected by the spread hash of the key.
+     */
+    private final Stripe<K>[] stripes;
+
+    /**
+     * Estimates the weight of a tracked key.
+     */
+    private final ToLongFunction<? super K> weigher;
+
+    /**
+     * Number of tracked keys across all stripes.
+     */
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Total weight of the tracked keys across all stripes.
+     */
+    private final LongAdder totalWeight = new LongAdder();
+
+    /**
+     * Constructs a new {@code AccessOrderTracker} weighing every key as 1, so that its weight is its size.
+     */
+    public AccessOrderTracker() {
+        this(key -> 1L);
+    }
+
+    /**
+     * Constructs a new {@code AccessOrderTracker} weighing keys with the given function.
+     *
+     * @param weigher estimates the weight of a tracked key.
+     */
+    @SuppressWarnings("unchecked")
+    public AccessOrderTracker(ToLongFunction<? super K> weigher) {
+        this.weigher = weigher;
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe<>();
+        }
+    }
+
+    /**
+     * Records an access to the given key, moving it to the most recently used position of its stripe.
+     *
+     * @param key        the cache key that was accessed.
+     * @param accessTime the access timestamp in milliseconds.
+     */
+    public void touch(K key, long accessTime) {
+        Stripe<K> stripe = stripeFor(key);
+        boolean added;
+        stripe.lock.lock();
+        try {
+            added = stripe.accessTimes.put(key, accessTime) == null;
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (added) {
+            size.increment();
+            totalWeight.add(weigher.applyAsLong(key));
+        }
+    }
+
+    /**
+     * Removes and returns the least recently used key if it has not been accessed within
+     * {@code expirationTime}.
+     *
+     * @param expirationTime the maximum idle time in milliseconds.
+     * @param now            the current timestamp in milliseconds.
+     * @return the expired key, or {@code null} if the oldest key is still fresh.
+     */
+    public K pollExpired(long expirationTime, long now) {
+        return pollOldest(oldestAccessTime -> now - oldestAccessTime > expirationTime);
+    }
+
+    /**
+     * Removes and returns the least recently used key if the tracker holds more than
+     * {@code maxSize} keys.
+     *
+     * @param maxSize the maximum number of keys to retain.
+     * @return the removed key, or {@code null} if the tracker is within its size limit.
+     */
+    public K pollOverflow(long maxSize) {
+        return size.sum() > maxSize ? pollOldest(oldestAccessTime -> true) : null;
+    }
+
+    /**
+     * Removes and returns the least recently used key if the total weight of the tracked keys exceeds
+     * {@code maxWeight}.
+     *
+     * @param maxWeight the maximum total weight of the keys to retain.
+     * @return the removed key, or {@code null} if the tracker is within its weight limit.
+     */
+    public K pollOverweight(long maxWeight) {
+        return totalWeight.sum() > maxWeight ? pollOldest(oldestAccessTime -> true) : null;
+    }
+
+    /**
+     * Returns whether no keys are currently tracked.
+     *
+     * @return {@code true} if the tracker is empty.
+     */
+    public boolean isEmpty() {
+        return size.sum() == 0;
+    }
+
+    /**
+     * Removes and returns the least recently used key of all stripes if its access time satisfies the
+     * condition. Each stripe is locked only while its head is read or removed, so request threads are never
+     * blocked for the whole scan. A key touched between the scan and the removal is left in place and the
+     * scan is retried.
+     */
+    private K pollOldest(AccessTimeCondition condition) {
+        while (true) {
+            Stripe<K> oldestStripe = null;
+            K oldestKey = null;
+            long oldestAccessTime = Long.MAX_VALUE;
+            for (Stripe<K> stripe : stripes) {
+                stripe.lock.lock();
+                try {
+                    if (!stripe.accessTimes.isEmpty()) {
+                        Map.Entry<K, Long> head = stripe.accessTimes.entrySet().iterator().next();
+                        if (head.getValue() < oldestAccessTime) {
+                            oldestStripe = stripe;
+                            oldestKey = head.getKey();
+                            oldestAccessTime = head.getValue();
+                        }
+                    }
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+            if (oldestStripe == null || !condition.test(oldestAccessTime)) {
+                return null;
+            }
+            if (oldestStripe.removeHead(oldestKey, oldestAccessTime)) {
+                size.decrement();
+                totalWeight.add(-weigher.applyAsLong(oldestKey));
+                return oldestKey;
+            }
+        }
+    }
+
+    private Stripe<K> stripeFor(K key) {
+        int hash = key == null ? 0 : key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * Condition on the access time of the least recently used key.
+     */
+    @FunctionalInterface
+    private interface AccessTimeCondition {
+        boolean test(long oldestAccessTime);
+    }
+
+    /**
+     * One access-ordered partition of the tracked keys.
+     */
+    private static final class Stripe<K> {
+
+        /**
+         * Keys in access order (oldest first), mapped to their last access timestamp in milliseconds.
+         */
+        private final LinkedHashMap<K, Long> accessTimes = new LinkedHashMap<>(16, 0.75f, true);
+
+        /**
+         * Lock guarding {@link #accessTimes}, which is not thread-safe on its own.
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * Removes the head of the stripe if it is still the given key with the given access time.
+         */
+        private boolean removeHead(K key, long accessTime) {
+            lock.lock();
+            try {
+                if (accessTimes.isEmpty()) {
+                    return false;
+                }
+                Iterator<Map.Entry<K, Long>> iterator = accessTimes.entrySet().iterator();
+                Map.Entry<K, Long> head = iterator.next();
+                if (!head.getKey().equals(key) || head.getValue() != accessTime) {
+                    return false;
+                }
+                iterator.remove();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -1,26 +1,34 @@
 /**
  * Service responsible for tracking cache access times and evicting stale cache entries
- * for geocoding and reverse geocoding caches.
+ * for geocoding and reverse geocoding caches that have no {@link CacheSpecProperties} entry.
  *
- * <p>This service uses Spring's {@link CacheManager} to interact with cache instances
- * and implements custom eviction logic based on the last access time of cache entries.
- * It ensures that cache entries remain within a defined size limit and are evicted if they exceed
- * a specified expiration time.
+ * <p>A cache with a specification is bounded and expired by its own policy: Caffeine's frequency-aware
+ * eviction and expire-after-access, or the off-heap and coordinate stores. Keeping a second least recently
+ * used order for it would only disagree with that policy, so such caches are not tracked at all.
+ *
+ * <p>Caches without a specification are created unbounded by the {@link CacheManager}. For them this
+ * service keeps access times in an {@link AccessOrderTracker}, so recording an access and evicting the
+ * least recently used entry are both cheap, and evicts entries that exceed a default size limit or have
+ * been idle for longer than a default expiration time. Eviction runs as a scheduled maintenance task off
+ * the request threads, which only record access times.
  */
 package com.caching.service.cacheeviction;
 
+import com.caching.config.CacheSpecProperties;
 import com.caching.exception.CacheEvictionException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.Cache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-
 @Slf4j
 @Service
 public class CacheTrackingService {
+    /**
+     * Size limit used for caches without a specification.
+     */
     private static final long CACHE_SIZE = 10;
 
     /**
@@ -29,29 +37,42 @@ public class CacheTrackingService {
     private final CacheManager cacheManager;
 
     /**
-     * A map to track the last access times for geocoding cache entries.
-     * The key is the cache key, and the value is the last access timestamp in milliseconds.
+     * Per-cache size and expiry specifications.
+     */
+    private final CacheSpecProperties cacheSpecProperties;
+
+    /**
+     * Tracks the last access times for geocoding cache entries in access order.
      */
-    private final Map<String, Long> geocodingAccessTimes = new ConcurrentHashMap<>();
+    private final AccessOrderTracker<String> geocodingAccessTimes = new AccessOrderTracker<>();
 
     /**
-     * A map to track the last access times for reverse geocoding cache entries.
-     * The key is the cache key, and the value is the last access timestamp in milliseconds.
+     * Tracks the last access times for reverse geocoding cache entries in access order. Keys are
+     * the reverse geocoding cache keys, either coordinate pairs or geohash cells.
      */
-    private final Map<String, Long> reverseGeocodingAccessTimes = new ConcurrentHashMap<>();
+    private final AccessOrderTracker<Object> reverseGeocodingAccessTimes = new AccessOrderTracker<>();
 
     /**
-     * Cache expiration time in milliseconds. Default is 5 minutes.
+     * Cache expiration time in milliseconds for caches without a specification. Default is 5 minutes.
      */
     private static final long CACHE_EXPIRATION_TIME = 5 * 60 * 1000L;
 
+    /**
+     * Maximum number of entries evicted per cache in a single scheduled maintenance pass,
+     * retrieved from application properties. Remaining stale entries are handled by the next pass.
+     */
+    @Value("${cache.eviction.batch-size:1000}")
+    private int evictionBatchSize;
+
     /**
      * Constructs a new {@code CacheTrackingService} with the provided {@link CacheManager}.
      *
-     * @param cacheManager the cache manager used to manage cache instances.
+     * @param cacheManager        the cache manager used to manage cache instances.
+     * @param cacheSpecProperties the per-cache size and expiry specifications.
      */
-    public CacheTrackingService(CacheManager cacheManager) {
+    public CacheTrackingService(CacheManager cacheManager, CacheSpecProperties cacheSpecProperties) {
         this.cacheManager = cacheManager;
+        this.cacheSpecProperties = cacheSpecProperties;
     }
 
     /**
@@ -61,7 +82,10 @@ public class CacheTrackingService {
      * @param cacheKey the key of the geocoding cache entry.
      */
     public void updateGeocodingAccessTime(String cacheKey) {
-        geocodingAccessTimes.put(cacheKey, System.currentTimeMillis());
+        if (!isTracked("geocoding")) {
+            return;
+        }
+        geocodingAccessTimes.touch(cacheKey, System.currentTimeMillis());
     }
 
     /**
@@ -70,8 +94,51 @@ public class CacheTrackingService {
      *
      * @param cacheKey the key of the reverse geocoding cache entry.
      */
-    public void updateReverseGeocodingAccessTime(String cacheKey) {
-        reverseGeocodingAccessTimes.put(cacheKey, System.currentTimeMillis());
+    public void updateReverseGeocodingAccessTime(Object cacheKey) {
+        if (!isTracked("reverse-geocoding")) {
+            return;
+        }
+        reverseGeocodingAccessTimes.touch(cacheKey, System.currentTimeMillis());
+    }
+
+    /**
+     * Returns whether accesses to the cache are tracked. Caches with a specification bound and expire their
+     * entries themselves, whether in Caffeine, off-heap or in a coordinate store.
+     *
+     * @param cacheName the name of the cache.
+     * @return {@code true} if the cache has no specification.
+     */
+    private boolean isTracked(String cacheName) {
+        return cacheSpecProperties.getSpec(cacheName) == null;
+    }
+
+    /**
+     * Scheduled maintenance task that evicts stale entries from both caches.
+     *
+     * <p>The cadence is configured by {@code cache.eviction.interval-ms}, and each pass evicts at most
+     * {@code cache.eviction.batch-size} entries per cache to bound the time spent in a single run.
+     * A pass that evicts anything logs one summary line; the evicted keys are logged at debug level.
+     * Failures are logged so that the next pass can retry.
+     */
+    @Scheduled(fixedDelayString = "${cache.eviction.interval-ms:1000}",
+            initialDelayString = "${cache.eviction.interval-ms:1000}")
+    public void runEvictionPass() {
+        int geocodingEvicted = 0;
+        int reverseGeocodingEvicted = 0;
+        try {
+            geocodingEvicted = evictStaleEntries("geocoding", geocodingAccessTimes, evictionBatchSize);
+        } catch (Exception e) {
+            log.error("Error during geocoding cache cleanup: {}", e.getMessage());
+        }
+        try {
+            reverseGeocodingEvicted = evictStaleEntries("reverse-geocoding", reverseGeocodingAccessTimes, evictionBatchSize);
+        } catch (Exception e) {
+            log.error("Error during reverse geocoding cache cleanup: {}", e.getMessage());
+        }
+        if (geocodingEvicted > 0 || reverseGeocodingEvicted > 0) {
+            log.info("Eviction pass evicted {} geocoding and {} reverse geocoding entries",
+                    geocodingEvicted, reverseGeocodingEvicted);
+        }
     }
 
     /**
@@ -79,7 +146,8 @@ public class CacheTrackingService {
      * Stale entries are those that exceed the cache expiration time or if the cache size exceeds the limit.
      */
     public void evictStaleGeocodingEntries() {
-        evictStaleEntries("geocoding", geocodingAccessTimes);
+        int evicted = evictStaleEntries("geocoding", geocodingAccessTimes, Integer.MAX_VALUE);
+        log.info("Evicted {} stale geocoding entries", evicted);
     }
 
     /**
@@ -87,47 +155,64 @@ public class CacheTrackingService {
      * Stale entries are those that exceed the cache expiration time or if the cache size exceeds the limit.
      */
     public void evictStaleReverseGeocodingEntries() {
-        evictStaleEntries("reverse-geocoding", reverseGeocodingAccessTimes);
+        int evicted = evictStaleEntries("reverse-geocoding", reverseGeocodingAccessTimes, Integer.MAX_VALUE);
+        log.info("Evicted {} stale reverse geocoding entries", evicted);
     }
 
     /**
-     * Helper method to evict stale cache entries for a given cache name and access time map.
-     * Stale entries are removed either if their last access time exceeds the configured expiration time
-     * or if the number of cache entries exceeds the allowed size.
+     * Helper method to evict stale cache entries for a given cache name and access tracker.
+     * Stale entries are removed either if their last access time exceeds the default expiration time
+     * or if the number of cache entries exceeds the default size. Each eviction takes the least recently
+     * used key from the tracker, so no sorting or copying is involved.
      *
-     * @param cacheName  the name of the cache to clean up.
-     * @param accessTimes a map of cache keys and their corresponding last access times.
+     * @param cacheName    the name of the cache to clean up.
+     * @param accessTimes  the access-ordered tracker of cache keys for the cache.
+     * @param maxEvictions the maximum number of entries to evict in this call.
+     * @return the number of entries evicted.
      */
-    private void evictStaleEntries(String cacheName, Map<String, Long> accessTimes) {
+    private <K> int evictStaleEntries(String cacheName, AccessOrderTracker<K> accessTimes, int maxEvictions) {
         if (accessTimes.isEmpty()) {
-            return;
+            return 0;
         }
 
         Cache cache = cacheManager.getCache(cacheName);
         if (cache == null) {
             log.error("Cache {} not found in cache manager", cacheName);
-            return;
+            return 0;
+        }
+
+        // Evict entries idle for longer than the expiration time, oldest first
+        int evicted = 0;
+        K oldestKey;
+        while (evicted < maxEvictions
+                && (oldestKey = accessTimes.pollExpired(CACHE_EXPIRATION_TIME, System.currentTimeMillis())) != null) {
+            evicted++;
+            evict(cache, cacheName, oldestKey);
         }
 
-        List<Map.Entry<String, Long>> sortedEntries = new ArrayList<>(accessTimes.entrySet());
-        sortedEntries.sort(Map.Entry.comparingByValue()); // Sort by last access time (oldest first)
-
-        // Remove entries until the cache size is reduced to CACHE_SIZE or expired entries are evicted
-        while (!accessTimes.isEmpty() &&
-                (accessTimes.size() > CACHE_SIZE || System.currentTimeMillis() - sortedEntries.get(0).getValue() > CACHE_EXPIRATION_TIME)) {
-            try {
-                // Evict the oldest entry
-                String oldestKey = sortedEntries.get(0).getKey();
-                cache.evict(oldestKey);
-                accessTimes.remove(oldestKey);
-
-                // Remove the entry from the sorted list
-                sortedEntries.remove(0);
-                log.info("Evicted stale cache entry from {}: {}", cacheName, oldestKey);
-            } catch (Exception e) {
-                log.error("Failed to evict cache entry for key {}: {}", sortedEntries.get(0).getKey(), e.getMessage());
-                throw new CacheEvictionException("Cache eviction failed for cache: " + cacheName, e);
-            }
+        // Evict the least recently used entries beyond the size limit
+        while (evicted < maxEvictions && (oldestKey = accessTimes.pollOverflow(CACHE_SIZE)) != null) {
+            evicted++;
+            evict(cache, cacheName, oldestKey);
+        }
+        return evicted;
+    }
+
+    /**
+     * Evicts a single key from the given cache.
+     *
+     * @param cache     the cache to evict from.
+     * @param cacheName the name of the cache, used for logging.
+     * @param key       the key to evict.
+     * @throws CacheEvictionException if the cache fails to evict the key.
+     */
+    private void evict(Cache cache, String cacheName, Object key) {
+        try {
+            cache.evict(key);
+            log.debug("Evicted stale cache entry from {}: {}", cacheName, key);
+        } catch (Exception e) {
+            log.error("Failed to evict cache entry for key {}: {}", key, e.getMessage());
+            throw new CacheEvictionException("Cache eviction failed for cache: " + cacheName, e);
         }
     }
 }
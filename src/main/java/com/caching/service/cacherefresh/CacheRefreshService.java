@@ -0,0 +1,238 @@
+/**
+ * Service implementing stale-while-revalidate (refresh-ahead) for the geocoding caches.
+ *
+ * <p>The write time of every cached entry is recorded. When an entry is read after its soft TTL
+ * ({@code refresh-after-write}) but before its hard TTL ({@code expire-after-write}) removes it, the cached
+ * value is still returned to the caller and a background task fetches a fresh value and writes it back
+ * into the cache. Hot keys are therefore replaced before they expire and never pay the upstream round-trip
+ * on the request thread.
+ */
+package com.caching.service.cacherefresh;
+
+import com.caching.config.CacheEntryWeigher;
+import com.caching.config.CacheSpecProperties;
+import com.caching.service.coalescing.RequestCoalescer;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class CacheRefreshService {
+
+    /**
+     * Spring's cache manager holding the caches to refresh.
+     */
+    private final CacheManager cacheManager;
+
+    /**
+     * Per-cache soft and hard TTL specifications.
+     */
+    private final CacheSpecProperties cacheSpecProperties;
+
+    /**
+     * Coalescer shared with the request path, so a refresh and a concurrent miss for the same key
+     * result in a single upstream call.
+     */
+    private final RequestCoalescer requestCoalescer;
+
+    /**
+     * Write timestamps per cache, bounded like the cache itself and expiring with its hard TTL.
+     */
+    private final Map<String, com.github.benmanes.caffeine.cache.Cache<Object, Long>> writeTimes = new ConcurrentHashMap<>();
+
+    /**
+     * Keys with a refresh currently queued or running.
+     */
+    private final Set<SimpleKey> refreshing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Number of background threads performing refreshes, retrieved from application properties.
+     */
+    @Value("${cache.refresh.pool-size:4}")
+    private int poolSize;
+
+    /**
+     * Executor running background refreshes.
+     */
+    private ExecutorService refreshExecutor;
+
+    /**
+     * Constructs a new {@code CacheRefreshService}.
+     *
+     * @param cacheManager        the cache manager holding the caches to refresh.
+     * @param cacheSpecProperties the per-cache TTL specifications.
+     * @param requestCoalescer    the coalescer shared with the request path.
+     */
+    public CacheRefreshService(CacheManager cacheManager, CacheSpecProperties cacheSpecProperties,
+                               RequestCoalescer requestCoalescer) {
+        this.cacheManager = cacheManager;
+        this.cacheSpecProperties = cacheSpecProperties;
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    /**
+     * Starts the background refresh executor.
+     */
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        refreshExecutor = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "cache-refresh-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stops the background refresh executor.
+     */
+    @PreDestroy
+    public void stop() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Records that a value was just written to the given cache under the given key.
+     *
+     * @param cacheName the name of the cache.
+     * @param key       the cache key.
+     */
+    public void recordWrite(String cacheName, Object key) {
+        CacheSpecProperties.CacheSpec spec = cacheSpecProperties.getSpec(cacheName);
+        if (spec == null || spec.getRefreshAfterWrite() == null || isWriteTimeAware(cacheName)) {
+            return;
+        }
+        writeTimes.computeIfAbsent(cacheName, name -> buildWriteTimes(spec)).put(key, System.currentTimeMillis());
+    }
+
+    /**
+     * Schedules an asynchronous refresh of the given entry if it is older than the cache's soft TTL.
+     *
+     * <p>This method never blocks on the refresh: the caller keeps serving the value it already has.
+     * A refresh is skipped if one is already pending for the key.
+     *
+     * @param cacheName the name of the cache.
+     * @param key       the cache key.
+     * @param loader    fetches a fresh value from the upstream service.
+     */
+    public void refreshIfStale(String cacheName, Object key, Supplier<?> loader) {
+        CacheSpecProperties.CacheSpec spec = cacheSpecProperties.getSpec(cacheName);
+        if (spec == null || spec.getRefreshAfterWrite() == null) {
+            return;
+        }
+        Long writeTime = writeTime(cacheName, spec, key);
+        if (writeTime == null || System.currentTimeMillis() - writeTime < spec.getRefreshAfterWrite().toMillis()) {
+            return;
+        }
+
+        SimpleKey refreshKey = new SimpleKey(cacheName, key);
+        if (!refreshing.add(refreshKey)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> refresh(cacheName, key, loader, refreshKey));
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(refreshKey);
+            log.error("Could not schedule refresh for {} key {}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    /**
+     * Returns when the entry was last written. Off-heap and coordinate caches keep the write time with the
+     * entry, so no separate record of their keys is held on the heap.
+     *
+     * @param cacheName the name of the cache.
+     * @param spec      the cache specification.
+     * @param key       the cache key.
+     * @return the write timestamp in milliseconds, or {@code null} if unknown.
+     */
+    private Long writeTime(String cacheName, CacheSpecProperties.CacheSpec spec, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && cache.getNativeCache() instanceof WriteTimeAwareCache) {
+            return ((WriteTimeAwareCache) cache.getNativeCache()).getWriteTime(key);
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Long> cacheWriteTimes = writeTimes.get(cacheName);
+        return cacheWriteTimes != null ? cacheWriteTimes.getIfPresent(key) : null;
+    }
+
+    /**
+     * Returns whether the cache keeps the write time with each entry itself.
+     *
+     * @param cacheName the name of the cache.
+     * @return {@code true} if the cache is a {@link WriteTimeAwareCache}.
+     */
+    private boolean isWriteTimeAware(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        return cache != null && cache.getNativeCache() instanceof WriteTimeAwareCache;
+    }
+
+    /**
+     * Fetches a fresh value and replaces the cached one, provided the entry is still cached.
+     * On failure the stale value is left in place until its hard TTL expires.
+     *
+     * @param cacheName  the name of the cache.
+     * @param key        the cache key.
+     * @param loader     fetches a fresh value from the upstream service.
+     * @param refreshKey the key marking this refresh as pending.
+     */
+    private void refresh(String cacheName, Object key, Supplier<?> loader, SimpleKey refreshKey) {
+        try {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache == null || cache.get(key) == null) {
+                return;
+            }
+            // The fresh value is written inside the coalesced call, so requests arriving as it completes
+            // find it in the cache instead of starting another upstream call
+            Object value = requestCoalescer.execute(cacheName, key, () -> {
+                Object fresh = loader.get();
+                if (fresh != null) {
+                    cache.put(key, fresh);
+                    recordWrite(cacheName, key);
+                }
+                return fresh;
+            });
+            if (value != null) {
+                log.info("Refreshed cache entry in {}: {}", cacheName, key);
+            }
+        } catch (Exception e) {
+            log.error("Failed to refresh cache entry in {} for key {}: {}", cacheName, key, e.getMessage());
+        } finally {
+            refreshing.remove(refreshKey);
+        }
+    }
+
+    /**
+     * Builds the write-time store for a cache, bounded by the cache's size or weight and hard TTL.
+     *
+     * @param spec the cache specification.
+     * @return an empty write-time store.
+     */
+    private com.github.benmanes.caffeine.cache.Cache<Object, Long> buildWriteTimes(CacheSpecProperties.CacheSpec spec) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (spec.getMaximumWeight() != null) {
+            builder.maximumWeight(spec.getMaximumWeight().toBytes()).weigher(CacheEntryWeigher.INSTANCE);
+        } else if (spec.getMaximumSize() != null) {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+        if (spec.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(spec.getExpireAfterWrite());
+        }
+        return builder.build();
+    }
+}
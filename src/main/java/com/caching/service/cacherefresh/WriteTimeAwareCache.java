@@ -0,0 +1,16 @@
+package com.caching.service.cacherefresh;
+
+/**
+ * Cache that keeps the write time with each entry, so refresh-ahead can read it from the cache instead of
+ * recording every key a second time on the heap.
+ */
+public interface WriteTimeAwareCache {
+
+    /**
+     * Returns the time the entry for the key was written.
+     *
+     * @param key the cache key.
+     * @return the write timestamp in milliseconds, or {@code null} if the key is not cached.
+     */
+    Long getWriteTime(Object key);
+}
@@ -0,0 +1,145 @@
+/**
+ * Service that coalesces concurrent requests for the same key into a single upstream call.
+ *
+ * <p>The first caller for a key becomes the leader and performs the call; callers that arrive while
+ * the call is in flight wait for the leader's result instead of issuing their own. The result, or the
+ * exception thrown by the leader, is shared with every waiter. Waiters give up after a configurable
+ * timeout so that a stuck upstream call cannot hold them indefinitely. Blocking and asynchronous callers
+ * share the same in-flight calls.
+ *
+ * <p>A call stays visible to new callers until its loader has returned. Loaders that write their result
+ * to the cache therefore close the window in which a caller could miss both the in-flight call and the
+ * cache. The leader's promise is completed even if the loader throws an {@link Error}, so waiters never
+ * wait out the timeout for a call that already failed.
+ */
+package com.caching.service.coalescing;
+
+import com.caching.exception.UpstreamTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class RequestCoalescer {
+
+    /**
+     * Calls currently in flight, keyed by cache name and cache key.
+     */
+    private final Map<SimpleKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Maximum time in milliseconds a waiter blocks for the leader's result, retrieved from application properties.
+     */
+    @Value("${coalescing.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    /**
+     * Executes the loader for the given key unless an identical call is already in flight, in which case
+     * the caller waits for and returns that call's result.
+     *
+     * @param cacheName the cache the result belongs to, used to separate key spaces.
+     * @param key       the cache key identifying the request.
+     * @param loader    the upstream call to perform when this caller is the leader.
+     * @param <T>       the result type.
+     * @return the result of the single upstream call for the key.
+     * @throws UpstreamTimeoutException if the in-flight call does not complete within the wait timeout.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String cacheName, Object key, Supplier<T> loader) {
+        SimpleKey flightKey = new SimpleKey(cacheName, key);
+        CompletableFuture<Object> promise = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, promise);
+        if (existing == null) {
+            try {
+                T result = loader.get();
+                promise.complete(result);
+                return result;
+            } catch (Throwable e) {
+                promise.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(flightKey, promise);
+            }
+        }
+
+        log.info("Joining in-flight request for {} key: {}", cacheName, key);
+        try {
+            return (T) existing.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.error("Timed out after {} ms waiting for in-flight request for {} key: {}", waitTimeoutMs, cacheName, key);
+            throw new UpstreamTimeoutException("Timed out waiting for an in-flight request for: " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamTimeoutException("Interrupted while waiting for an in-flight request for: " + key);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #execute}: starts the loader for the given key unless an identical call
+     * is already in flight, in which case the returned future follows that call.
+     *
+     * @param cacheName the cache the result belongs to, used to separate key spaces.
+     * @param key       the cache key identifying the request.
+     * @param loader    starts the upstream call when this caller is the leader.
+     * @param <T>       the result type.
+     * @return a future completed with the result of the single upstream call for the key, or exceptionally
+     * with an {@link UpstreamTimeoutException} if a joined call does not complete within the wait timeout.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> executeAsync(String cacheName, Object key, Supplier<CompletableFuture<T>> loader) {
+        SimpleKey flightKey = new SimpleKey(cacheName, key);
+        CompletableFuture<Object> promise = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, promise);
+        if (existing == null) {
+            try {
+                loader.get().whenComplete((result, error) -> {
+                    inFlight.remove(flightKey, promise);
+                    if (error != null) {
+                        promise.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error);
+                    } else {
+                        promise.complete(result);
+                    }
+                });
+            } catch (Throwable e) {
+                inFlight.remove(flightKey, promise);
+                promise.completeExceptionally(e);
+            }
+            return promise.thenApply(result -> (T) result);
+        }
+
+        log.info("Joining in-flight request for {} key: {}", cacheName, key);
+        return existing.copy()
+                .orTimeout(waitTimeoutMs, TimeUnit.MILLISECONDS)
+                .handle((result, error) -> {
+                    if (error == null) {
+                        return (T) result;
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    if (cause instanceof TimeoutException) {
+                        log.error("Timed out after {} ms waiting for in-flight request for {} key: {}", waitTimeoutMs, cacheName, key);
+                        throw new UpstreamTimeoutException("Timed out waiting for an in-flight request for: " + key);
+                    }
+                    throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+                });
+    }
+}
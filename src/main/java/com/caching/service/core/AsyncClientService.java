@@ -0,0 +1,267 @@
+package com.caching.service.core;
+
+import com.caching.exception.InvalidAddressException;
+import com.caching.model.Address;
+import com.caching.service.provider.GeocodingProviderRouter;
+import com.caching.service.provider.ResponseReader;
+import com.caching.service.resilience.UpstreamRequestHedger;
+import com.caching.service.resilience.UpstreamRetryPolicy;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.UnknownHttpStatusCodeException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking counterpart of {@link ClientService} for geocoding and reverse geocoding operations.
+ *
+ * <p>Requests are sent with the JDK {@link HttpClient}, which multiplexes connections over a selector
+ * instead of parking a thread per request, so a small completion pool can keep many upstream calls in
+ * flight. Responses are validated exactly like the blocking client: missing data results in an
+ * {@link InvalidAddressException}, and non-2xx statuses in the same {@code HttpStatusCodeException} types
+ * that {@code RestTemplate} throws. Calls share the {@link GeocodingProviderRouter},
+ * {@link UpstreamRequestHedger} and {@link UpstreamRetryPolicy} with the blocking client, and wait for tokens,
+ * hedge delays and backoffs without blocking a thread.
+ *
+ * <p>Response bodies are not buffered: each body is decoded with the provider's streaming reader while it
+ * arrives, on a small decoding pool separate from the client's completion pool, which feeds the body stream
+ * and must therefore never wait on it. Whatever follows the first result is drained unread, so the
+ * connection can be reused.
+ */
+@Slf4j
+@Service
+public class AsyncClientService {
+
+    /**
+     * Router choosing the provider for each upstream attempt.
+     */
+    private final GeocodingProviderRouter geocodingProviderRouter;
+
+    /**
+     * Mapper used to parse response bodies.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Retry policy for transient upstream failures.
+     */
+    private final UpstreamRetryPolicy upstreamRetryPolicy;
+
+    /**
+     * Hedger duplicating attempts that are slower than recent calls.
+     */
+    private final UpstreamRequestHedger upstreamRequestHedger;
+
+    /**
+     * Timeout in milliseconds for establishing a connection, retrieved from application properties.
+     */
+    @Value("${http-client.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    /**
+     * Timeout in milliseconds for the complete response, retrieved from application properties.
+     */
+    @Value("${http-client.read-timeout-ms:5000}")
+    private long readTimeoutMs;
+
+    /**
+     * Number of threads completing upstream responses, retrieved from application properties.
+     */
+    @Value("${async-client.completion-threads:4}")
+    private int completionThreads;
+
+    /**
+     * Number of threads decoding response bodies as they arrive, retrieved from application properties.
+     */
+    @Value("${async-client.decoding-threads:8}")
+    private int decodingThreads;
+
+    /**
+     * Pool on which response handling and dependent stages run.
+     */
+    private ExecutorService completionExecutor;
+
+    /**
+     * Pool on which response bodies are read and decoded.
+     */
+    private ExecutorService decodingExecutor;
+
+    /**
+     * Non-blocking HTTP client.
+     */
+    private HttpClient httpClient;
+
+    /**
+     * Constructs a new {@code AsyncClientService}.
+     *
+     * @param geocodingProviderRouter the router shared with the blocking client.
+     * @param objectMapper            the mapper used to parse response bodies.
+     * @param upstreamRetryPolicy     the retry policy shared with the blocking client.
+     * @param upstreamRequestHedger   the hedger shared with the blocking client.
+     */
+    public AsyncClientService(GeocodingProviderRouter geocodingProviderRouter, ObjectMapper objectMapper,
+                              UpstreamRetryPolicy upstreamRetryPolicy, UpstreamRequestHedger upstreamRequestHedger) {
+        this.geocodingProviderRouter = geocodingProviderRouter;
+        this.objectMapper = objectMapper;
+        this.upstreamRetryPolicy = upstreamRetryPolicy;
+        this.upstreamRequestHedger = upstreamRequestHedger;
+    }
+
+    /**
+     * Creates the HTTP client, its completion pool and the decoding pool.
+     */
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        completionExecutor = Executors.newFixedThreadPool(completionThreads, runnable -> {
+            Thread thread = new Thread(runnable, "async-client-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger decoderCount = new AtomicInteger();
+        decodingExecutor = Executors.newFixedThreadPool(decodingThreads, runnable -> {
+            Thread thread = new Thread(runnable, "async-client-decoder-" + decoderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(completionExecutor)
+                .build();
+    }
+
+    /**
+     * Shuts down the completion and decoding pools.
+     */
+    @PreDestroy
+    public void stop() {
+        completionExecutor.shutdownNow();
+        decodingExecutor.shutdownNow();
+    }
+
+    /**
+     * Fetches geocoding data for a given address without blocking the calling thread.
+     *
+     * @param address the address to geocode.
+     * @return a future completed with an {@link Address} containing geocoding details, or completed
+     * exceptionally with an {@link InvalidAddressException} if the address is invalid or has no results.
+     */
+    public CompletableFuture<Address> getGeocoding(String address) {
+        log.info("Fetching geocoding data asynchronously for address: {} from Client's External API", address);
+
+        if (address == null || address.trim().isEmpty()) {
+            log.error("Provided address is null or empty.");
+            return CompletableFuture.failedFuture(new InvalidAddressException("Invalid address: No Address is passed" + address));
+        }
+
+        return upstreamRetryPolicy.executeAsync(() -> upstreamRequestHedger.executeAsync(
+                listener -> geocodingProviderRouter.executeAsync(
+                        provider -> send(provider.geocodingURL(address), provider::readGeocodingResponse), listener))).thenApply(responseBody -> {
+            if (responseBody == null || responseBody.getData() == null || responseBody.getData().isEmpty()) {
+                log.error("No geocoding results found for address: {} from Client's External API", address);
+                throw new InvalidAddressException("No results found for the given address: " + address);
+            }
+            return responseBody;
+        });
+    }
+
+    /**
+     * Fetches reverse geocoding data for a given latitude and longitude without blocking the calling thread.
+     *
+     * @param latitude  the latitude for reverse geocoding.
+     * @param longitude the longitude for reverse geocoding.
+     * @return a future completed with an {@link Address} containing reverse geocoding details, or completed
+     * exceptionally with an {@link InvalidAddressException} if the coordinates are invalid or have no results.
+     */
+    public CompletableFuture<Address> getReverseGeocoding(Double latitude, Double longitude) {
+        log.info("Fetching reverse geocoding data asynchronously for latitude: {} and longitude: {} from Client's External API", latitude, longitude);
+
+        if (latitude == null || longitude == null) {
+            log.error("Latitude or longitude is null.");
+            return CompletableFuture.failedFuture(new InvalidAddressException("Invalid latitude or longitude: Latitude or Longitude is null"));
+        }
+
+        return upstreamRetryPolicy.executeAsync(() -> upstreamRequestHedger.executeAsync(
+                listener -> geocodingProviderRouter.executeAsync(
+                        provider -> send(provider.reverseGeocodingURL(latitude, longitude), provider::readReverseGeocodingResponse), listener))).thenApply(responseBody -> {
+            if (responseBody == null || responseBody.getData() == null || responseBody.getData().isEmpty()) {
+                log.error("No reverse geocoding results found for latitude: {} and longitude: {} from Client's External API", latitude, longitude);
+                throw new InvalidAddressException("No results found for the given latitude and longitude: " + latitude + ", " + longitude);
+            }
+            return responseBody;
+        });
+    }
+
+    /**
+     * Sends a GET request and decodes a successful response body.
+     *
+     * @param requestURL the fully encoded request URL.
+     * @param reader     the provider's decoder for the response.
+     * @return a future completed with the decoded response.
+     */
+    private CompletableFuture<Address> send(URI requestURL, ResponseReader reader) {
+        HttpRequest request = HttpRequest.newBuilder(requestURL)
+                .timeout(Duration.ofMillis(readTimeoutMs))
+                .header(HttpHeaders.ACCEPT, "application/json")
+                .GET()
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApplyAsync(response -> readBody(response, reader), decodingExecutor);
+    }
+
+    /**
+     * Decodes an HTTP response body with a streaming parser as it arrives, or throws the {@code RestTemplate}
+     * equivalent exception for an error status. As in {@code DefaultResponseErrorHandler}, a status code that
+     * {@link HttpStatus} does not know is raised as an {@link UnknownHttpStatusCodeException}.
+     */
+    private Address readBody(HttpResponse<InputStream> response, ResponseReader reader) {
+        try (InputStream body = response.body()) {
+            int status = response.statusCode();
+            if (status >= 400) {
+                HttpStatus httpStatus = HttpStatus.resolve(status);
+                byte[] errorBody = body.readAllBytes();
+                if (httpStatus == null) {
+                    throw new UnknownHttpStatusCodeException(status, "", HttpHeaders.EMPTY, errorBody, StandardCharsets.UTF_8);
+                }
+                if (httpStatus.is5xxServerError()) {
+                    throw HttpServerErrorException.create(httpStatus, httpStatus.getReasonPhrase(), HttpHeaders.EMPTY,
+                            errorBody, StandardCharsets.UTF_8);
+                }
+                throw HttpClientErrorException.create(httpStatus, httpStatus.getReasonPhrase(), HttpHeaders.EMPTY,
+                        errorBody, StandardCharsets.UTF_8);
+            }
+            Address address;
+            try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+                parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+                address = reader.read(parser);
+            }
+            body.transferTo(OutputStream.nullOutputStream());
+            return address;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
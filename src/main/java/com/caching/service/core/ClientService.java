@@ -2,19 +2,33 @@ package com.caching.service.core;
 
 import com.caching.exception.InvalidAddressException;
 import com.caching.model.Address;
+import com.caching.service.provider.GeocodingProviderRouter;
+import com.caching.service.provider.ResponseReader;
+import com.caching.service.resilience.UpstreamRequestHedger;
+import com.caching.service.resilience.UpstreamRetryPolicy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+
 /**
  * Service class for handling geocoding and reverse geocoding operations.
  *
  * <p>This class integrates with the {@link RestTemplate} to fetch geocoding data and reverse geocoding data
  * from external APIs. It also validates the input address and response data before returning the results.
+ * Response bodies are decoded straight from the connection stream, reading only the first result.
+ * Every upstream attempt is routed to a provider by the {@link GeocodingProviderRouter}, which applies the
+ * provider's rate limit and circuit breaker and fails over to the other providers; slow attempts are hedged by
+ * the {@link UpstreamRequestHedger} and transient failures are retried by the {@link UpstreamRetryPolicy}.
  */
 @Slf4j
 @Service
@@ -27,35 +41,37 @@ public class ClientService {
     private final RestTemplate restTemplate;
 
     /**
-     * API access key for authentication, retrieved from application properties.
+     * Mapper whose factory creates the streaming parsers for response bodies.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Router choosing the provider for each upstream attempt.
      */
-    @Value("${api-key}")
-    private String accessKey;
+    private final GeocodingProviderRouter geocodingProviderRouter;
 
     /**
-     * Base URL for the geocoding API, retrieved from application properties.
+     * Retry policy for transient upstream failures.
      */
-    @Value("${geocoding-url}")
-    private String geocodingURL;
+    private final UpstreamRetryPolicy upstreamRetryPolicy;
 
     /**
-     * Base URL for the reverse geocoding API, retrieved from application properties.
+     * Hedger duplicating attempts that are slower than recent calls.
      */
-    @Value("${reverse-geocoding-url}")
-    private String reverseGeocodingURL;
+    private final UpstreamRequestHedger upstreamRequestHedger;
 
     /**
      * Fetches geocoding data (latitude, longitude, and other location details) for a given address.
      *
-     * <p>Replaces placeholders in the configured API URL with actual values. Validates the address
+     * <p>Builds the request URL of the chosen provider and maps its response. Validates the address
      * before making the API call and throws an exception if the address is invalid or if no data
      * is returned by the API.
      *
-     * <p>Replaces "delhi" with the address to be geocoded because in the TestGeocoding URL it is hardcoded.
-     *
      * @param address the address to geocode.
      * @return an {@link Address} object containing geocoding details.
      * @throws InvalidAddressException if the address is null, empty, or invalid.
+     * @throws com.caching.exception.RateLimitExceededException if the upstream rate limit leaves no capacity.
+     * @throws com.caching.exception.UpstreamUnavailableException if the circuit of every provider is open.
      */
     public Address getGeocoding(String address) {
         log.info("Fetching geocoding data for address: {} from Client's External API", address);
@@ -65,13 +81,9 @@ public class ClientService {
             throw new InvalidAddressException("Invalid address: No Address is passed" + address);
         }
 
-        // Build the request URL by replacing placeholders
-        String requestURL = geocodingURL
-                .replace("ACCESS_KEY_PLACEHOLDER", accessKey)
-                .replace("ADDRESS", address).replace("delhi", address);
-
-        ResponseEntity<Address> response = restTemplate.exchange(requestURL, HttpMethod.GET, null, Address.class);
-        Address responseBody = response.getBody();
+        Address responseBody = upstreamRetryPolicy.execute(() -> upstreamRequestHedger.execute(
+                listener -> geocodingProviderRouter.execute(
+                        provider -> fetch(provider.geocodingURL(address), provider::readGeocodingResponse), listener)));
         if (responseBody == null || responseBody.getData() == null || responseBody.getData().isEmpty()) {
             log.error("No geocoding results found for address: {} from Client's External API", address);
             throw new InvalidAddressException("No results found for the given address: " + address);
@@ -83,7 +95,7 @@ public class ClientService {
     /**
      * Fetches reverse geocoding data (address) for a given latitude and longitude.
      *
-     * <p>Replaces placeholders in the configured API URL with actual values. Validates the response
+     * <p>Builds the request URL of the chosen provider and maps its response. Validates the response
      * from the API and returns the {@link Address} object containing reverse geocoding details.
      *
      * @param latitude  the latitude for reverse geocoding.
@@ -97,18 +109,36 @@ public class ClientService {
             log.error("Latitude or longitude is null.");
             throw new InvalidAddressException("Invalid latitude or longitude: Latitude or Longitude is null");
         }
-        // Build the request URL by replacing placeholders
-        String requestURL = reverseGeocodingURL
-                .replace("API_KEY_PLACEHOLDER", accessKey)
-                .replace("LATITUDE", latitude.toString())
-                .replace("LONGITUDE", longitude.toString());
-
-        ResponseEntity<Address> response = restTemplate.exchange(requestURL, HttpMethod.GET, null, Address.class);
-        Address responseBody = response.getBody();
+        Address responseBody = upstreamRetryPolicy.execute(() -> upstreamRequestHedger.execute(
+                listener -> geocodingProviderRouter.execute(
+                        provider -> fetch(provider.reverseGeocodingURL(latitude, longitude), provider::readReverseGeocodingResponse), listener)));
         if (responseBody == null || responseBody.getData() == null || responseBody.getData().isEmpty()) {
             log.error("No reverse geocoding results found for latitude: {} and longitude: {} from Client's External API", latitude, longitude);
             throw new InvalidAddressException("No results found for the given latitude and longitude: " + latitude + ", " + longitude);
         }
         return responseBody;
     }
+
+    /**
+     * Sends a GET request and decodes the response body as it streams in.
+     *
+     * @param requestURL the fully encoded request URL.
+     * @param reader     the provider's decoder for the response.
+     * @return the decoded response.
+     */
+    private Address fetch(URI requestURL, ResponseReader reader) {
+        return restTemplate.execute(requestURL, HttpMethod.GET,
+                request -> request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_JSON)),
+                response -> read(response, reader));
+    }
+
+    /**
+     * Decodes a response body with a streaming parser. Closing the parser closes the body, which releases the
+     * connection back to the pool.
+     */
+    private Address read(ClientHttpResponse response, ResponseReader reader) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(response.getBody())) {
+            return reader.read(parser);
+        }
+    }
 }
@@ -2,16 +2,30 @@ package com.caching.service.core;
 
 import com.caching.dto.out.AddressDTO;
 import com.caching.dto.out.LocationDTO;
+import com.caching.exception.InvalidAddressException;
+import com.caching.exception.UpstreamUnavailableException;
 import com.caching.service.cacheeviction.CacheTrackingService;
+import com.caching.service.cacherefresh.CacheRefreshService;
+import com.caching.service.negativecache.FailedAddressFilter;
+import com.caching.service.negativecache.NegativeResultCache;
+import com.caching.service.normalization.AddressNormalizer;
+import com.caching.service.spatial.ReverseGeocodingKeyResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * Service responsible for handling geocoding and reverse geocoding operations.
  *
  * <p>This service integrates with the {@link CacheTrackingService} to update cache access times
+ * (stale entries are evicted by the tracking service's scheduled maintenance, not on the request thread)
  * and utilizes {@link GeocodingServiceCacheHelper} to retrieve geocoding and reverse geocoding data.
+ * Entries past their soft TTL are served as-is and refreshed in the background by the
+ * {@link CacheRefreshService}. Lookups that recently failed to resolve are rejected by the
+ * {@link FailedAddressFilter} and the {@link NegativeResultCache} before any cache or upstream work is done.
  */
 
 @RequiredArgsConstructor
@@ -29,40 +43,166 @@ public class GeocodingService {
      */
     private final GeocodingServiceCacheHelper geocodingServiceCacheHelper;
 
+    /**
+     * Service refreshing cache entries that are past their soft TTL.
+     */
+    private final CacheRefreshService cacheRefreshService;
+
+    /**
+     * Normalizer producing the canonical address used as the geocoding cache key.
+     */
+    private final AddressNormalizer addressNormalizer;
+
+    /**
+     * Resolver for the reverse geocoding cache key, either exact coordinates or a geohash cell.
+     */
+    private final ReverseGeocodingKeyResolver reverseGeocodingKeyResolver;
+
+    /**
+     * Cache of lookups that recently failed to resolve.
+     */
+    private final NegativeResultCache negativeResultCache;
+
+    /**
+     * Constant-memory filter of addresses that recently failed to resolve.
+     */
+    private final FailedAddressFilter failedAddressFilter;
+
     /**
      * Retrieves the geocoded location (latitude and longitude) for a given address.
      * <p>
-     * Updates the cache access time for the provided address in the geocoding cache.
+     * The address is normalized once, and the canonical form is used to update the cache access time in the
+     * geocoding cache and as the cache, negative cache and failed address filter key, so equivalent spellings
+     * of an address share one entry. The address as provided is what is sent to the upstream service.
+     * While the provider circuit is open, a stale disk tier entry is returned without being cached.
      *
      * @param address the address for which geocoding is requested.
      * @return a {@link LocationDTO} containing the latitude and longitude of the address.
      */
     public LocationDTO getGeocoding(String address) {
-        cacheTrackingService.updateGeocodingAccessTime(address);
+        String cacheKey = normalize(address);
+        failedAddressFilter.rejectIfFailed(cacheKey);
+        negativeResultCache.rejectIfKnown("geocoding", cacheKey);
+        cacheTrackingService.updateGeocodingAccessTime(cacheKey);
+        LocationDTO locationDTO;
         try {
-            cacheTrackingService.evictStaleReverseGeocodingEntries();
-        } catch (Exception e) {
-            log.error("Error during geocoding cache cleanup: {}", e.getMessage());
+            locationDTO = geocodingServiceCacheHelper.getGeocoding(cacheKey, address);
+        } catch (InvalidAddressException e) {
+            negativeResultCache.record("geocoding", cacheKey, e);
+            failedAddressFilter.record(cacheKey, e);
+            throw e;
+        } catch (UpstreamUnavailableException e) {
+            return geocodingServiceCacheHelper.getStale("geocoding", cacheKey, LocationDTO.class, e);
         }
-        return geocodingServiceCacheHelper.getGeocoding(address);
+        cacheRefreshService.refreshIfStale("geocoding", cacheKey,
+                () -> geocodingServiceCacheHelper.fetchGeocoding(cacheKey, address));
+        return locationDTO;
     }
 
     /**
      * Retrieves the address corresponding to the given geographic coordinates (latitude and longitude).
      * <p>
-     * Updates the cache access time for the provided coordinates in the reverse geocoding cache.
+     * Resolves the cache key for the coordinates once and uses it both to update the cache access time
+     * in the reverse geocoding cache and to look up the cache itself. While the provider circuit is open, a stale
+     * disk tier entry is returned without being cached.
      *
      * @param latitude  the latitude of the location.
      * @param longitude the longitude of the location.
      * @return an {@link AddressDTO} containing the address information for the coordinates.
      */
     public AddressDTO getReverseGeocoding(Double latitude, Double longitude) {
-        cacheTrackingService.updateReverseGeocodingAccessTime(latitude + "," + longitude);
+        Object cacheKey = reverseGeocodingKeyResolver.resolveKey(latitude, longitude);
+        negativeResultCache.rejectIfKnown("reverse-geocoding", cacheKey);
+        cacheTrackingService.updateReverseGeocodingAccessTime(cacheKey);
+        AddressDTO addressDTO;
         try {
-            cacheTrackingService.evictStaleReverseGeocodingEntries();
-        } catch (Exception e) {
-            log.error("Error during reverse geocoding cache cleanup: {}", e.getMessage());
+            addressDTO = geocodingServiceCacheHelper.getReverseGeocoding(cacheKey, latitude, longitude);
+        } catch (InvalidAddressException e) {
+            negativeResultCache.record("reverse-geocoding", cacheKey, e);
+            throw e;
+        } catch (UpstreamUnavailableException e) {
+            return geocodingServiceCacheHelper.getStale("reverse-geocoding", cacheKey, AddressDTO.class, e);
         }
-        return geocodingServiceCacheHelper.getReverseGeocoding(latitude, longitude);
+        cacheRefreshService.refreshIfStale("reverse-geocoding", cacheKey,
+                () -> geocodingServiceCacheHelper.fetchReverseGeocoding(cacheKey, latitude, longitude));
+        return addressDTO;
+    }
+
+    /**
+     * Asynchronous variant of {@link #getGeocoding(String)} that does not block the calling thread while the
+     * upstream service is queried.
+     *
+     * @param address the address for which geocoding is requested.
+     * @return a future completed with a {@link LocationDTO} containing the latitude and longitude of the address.
+     */
+    public CompletableFuture<LocationDTO> getGeocodingAsync(String address) {
+        String cacheKey;
+        try {
+            cacheKey = normalize(address);
+            failedAddressFilter.rejectIfFailed(cacheKey);
+            negativeResultCache.rejectIfKnown("geocoding", cacheKey);
+        } catch (InvalidAddressException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        cacheTrackingService.updateGeocodingAccessTime(cacheKey);
+        return geocodingServiceCacheHelper.getGeocodingAsync(cacheKey, address).whenComplete((ignored, error) -> {
+            if (error != null) {
+                negativeResultCache.record("geocoding", cacheKey, unwrap(error));
+                failedAddressFilter.record(cacheKey, unwrap(error));
+            }
+        }).thenApply(locationDTO -> {
+            cacheRefreshService.refreshIfStale("geocoding", cacheKey,
+                    () -> geocodingServiceCacheHelper.fetchGeocoding(cacheKey, address));
+            return locationDTO;
+        });
+    }
+
+    /**
+     * Asynchronous variant of {@link #getReverseGeocoding(Double, Double)} that does not block the calling
+     * thread while the upstream service is queried.
+     *
+     * @param latitude  the latitude of the location.
+     * @param longitude the longitude of the location.
+     * @return a future completed with an {@link AddressDTO} containing the address information for the coordinates.
+     */
+    public CompletableFuture<AddressDTO> getReverseGeocodingAsync(Double latitude, Double longitude) {
+        Object cacheKey = reverseGeocodingKeyResolver.resolveKey(latitude, longitude);
+        try {
+            negativeResultCache.rejectIfKnown("reverse-geocoding", cacheKey);
+        } catch (InvalidAddressException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        cacheTrackingService.updateReverseGeocodingAccessTime(cacheKey);
+        return geocodingServiceCacheHelper.getReverseGeocodingAsync(cacheKey, latitude, longitude).whenComplete((ignored, error) -> {
+            if (error != null) {
+                negativeResultCache.record("reverse-geocoding", cacheKey, unwrap(error));
+            }
+        }).thenApply(addressDTO -> {
+            cacheRefreshService.refreshIfStale("reverse-geocoding", cacheKey,
+                    () -> geocodingServiceCacheHelper.fetchReverseGeocoding(cacheKey, latitude, longitude));
+            return addressDTO;
+        });
+    }
+
+    /**
+     * Normalizes an address into its cache key.
+     *
+     * @param address the address as provided by the caller.
+     * @return the normalized address.
+     * @throws InvalidAddressException if nothing is left of the address after normalization.
+     */
+    private String normalize(String address) {
+        String cacheKey = addressNormalizer.normalize(address);
+        if (cacheKey == null || cacheKey.isEmpty()) {
+            throw new InvalidAddressException("Invalid address: No Address is passed");
+        }
+        return cacheKey;
+    }
+
+    /**
+     * Unwraps the {@link CompletionException} added by dependent stages.
+     */
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
     }
 }
@@ -1,67 +1,339 @@
 package com.caching.service.core;
 
+import com.caching.exception.UpstreamUnavailableException;
 import com.caching.model.Address;
 import com.caching.dto.out.LocationDTO;
 import com.caching.dto.out.AddressDTO;
 import com.caching.mapper.DTOMapper;
+import com.caching.service.cacherefresh.CacheRefreshService;
+import com.caching.service.coalescing.RequestCoalescer;
+import com.caching.service.persistence.PersistentCacheTier;
+import com.caching.service.spatial.SpatialAddressIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * Service class for handling geocoding and reverse geocoding operations, with caching for improved performance.
  *
  * <p>This class integrates with the {@link ClientService} to fetch geocoding data and leverages
  * {@link Cacheable} annotations to reduce redundant external API calls. Additionally, it maps raw data
- * from the repository into DTOs for easier consumption by client code.
+ * from the repository into DTOs for easier consumption by client code. In-memory cache misses are served
+ * from the {@link PersistentCacheTier} when possible before calling the {@link ClientService}.
+ *
+ * <p>Asynchronous variants perform the same lookups against the caches directly, since {@link Cacheable}
+ * cannot cache the result of a {@link CompletableFuture}, and call the {@link AsyncClientService} on a miss.
+ *
+ * <p>While the provider circuit is open, misses are answered with a stale disk tier entry when one exists,
+ * regardless of its age. Stale entries are returned without being cached or recorded as written, so they are
+ * not given a fresh lifetime and the next lookup after the circuit closes goes upstream.
  */
 @Slf4j
 @RequiredArgsConstructor
 @Service
 public class GeocodingServiceCacheHelper {
 
+    /**
+     * Address that is never cached and must always be re-fetched.
+     */
+    private static final String UNCACHED_ADDRESS = "goa";
+
     /**
      * Repository for accessing geocoding and reverse geocoding data.
      */
     private final ClientService clientService;
 
+    /**
+     * Non-blocking client used by the asynchronous variants.
+     */
+    private final AsyncClientService asyncClientService;
+
+    /**
+     * Spring's cache manager, used directly by the asynchronous variants.
+     */
+    private final CacheManager cacheManager;
+
     /**
      * Mapper for converting {@link Address} entities to corresponding DTOs.
      */
     private final DTOMapper dtoMapper;
 
+    /**
+     * Coalescer ensuring concurrent misses for the same key result in a single upstream call.
+     */
+    private final RequestCoalescer requestCoalescer;
+
+    /**
+     * Service recording cache write times for refresh-ahead.
+     */
+    private final CacheRefreshService cacheRefreshService;
+
+    /**
+     * Spatial index answering reverse geocoding misses from nearby resolved points.
+     */
+    private final SpatialAddressIndex spatialAddressIndex;
+
+    /**
+     * Persistent disk tier consulted on in-memory cache misses.
+     */
+    private final PersistentCacheTier persistentCacheTier;
+
     /**
      * Retrieves geocoding data (latitude, longitude, and related location information) for a specified address.
      *
-     * <p>The result is cached under the cache name "geocoding" with the address as the key.
-     * Caching is skipped for the address "goa" or if the result is {@code null}.
+     * <p>The result is cached under the cache name "geocoding" with the normalized address as the key,
+     * while the address as provided by the caller is what is sent to the upstream service.
+     * Caching is skipped for the address "goa" or if the result is {@code null}. On a miss, the persistent
+     * disk tier is consulted before the upstream service, and concurrent misses for the same key share
+     * a single upstream call. An open provider circuit is propagated, so nothing is cached, and the caller
+     * may fall back to {@link #getStale(String, Object, Class, UpstreamUnavailableException)}.
      *
-     * @param address the address to geocode.
+     * @param cacheKey the normalized address used as the cache key.
+     * @param address  the address to geocode, as provided by the caller.
      * @return a {@link LocationDTO} containing the geocoded details, or {@code null} if no results are found.
-     * @Cacheable(cacheNames = "geocoding", key = "#address", unless = "#result == null || #address.equalsIgnoreCase('goa')")
+     * @Cacheable(cacheNames = "geocoding", key = "#cacheKey", unless = "#result == null || #cacheKey.equalsIgnoreCase('goa')")
      */
-    @Cacheable(cacheNames = "geocoding", key = "#address", unless = "#result == null || #address.equalsIgnoreCase('goa')")
-    public LocationDTO getGeocoding(String address) {
+    @Cacheable(cacheNames = "geocoding", key = "#cacheKey", unless = "#result == null || #cacheKey.equalsIgnoreCase('goa')")
+    public LocationDTO getGeocoding(String cacheKey, String address) {
         log.info("Fetching geocoding data for address: {} in service", address);
-        Address geocoded = clientService.getGeocoding(address);
-        return dtoMapper.mapToLocationDTO(geocoded);
+        LocationDTO locationDTO = isPersistable(cacheKey) ? persistentCacheTier.get("geocoding", cacheKey, LocationDTO.class) : null;
+        if (locationDTO == null) {
+            locationDTO = requestCoalescer.execute("geocoding", cacheKey, () -> {
+                LocationDTO fetched = fetchGeocoding(cacheKey, address);
+                return isPersistable(cacheKey) ? publish("geocoding", cacheKey, fetched) : fetched;
+            });
+        }
+        cacheRefreshService.recordWrite("geocoding", cacheKey);
+        return locationDTO;
     }
 
     /**
      * Retrieves reverse geocoding data (address information) for specified geographic coordinates.
      *
-     * <p>The result is cached under the cache name "reverse-geocoding" using a composite key of latitude and longitude.
+     * <p>The result is cached under the cache name "reverse-geocoding" using the key resolved by the
+     * {@link com.caching.service.spatial.ReverseGeocodingKeyResolver}: a composite key of latitude and longitude,
+     * or the geohash cell containing the point.
+     * On a cache miss, a previously resolved point within the spatial index radius answers the lookup
+     * without an upstream call, followed by the persistent disk tier. Concurrent misses for the same cache key
+     * share a single upstream call. An open provider circuit is propagated as for
+     * {@link #getGeocoding(String, String)}.
      *
+     * @param cacheKey  the reverse geocoding cache key for the coordinates.
      * @param latitude  the latitude of the location.
      * @param longitude the longitude of the location.
      * @return an {@link AddressDTO} containing reverse geocoding details.
-     * @Cacheable(cacheNames = "reverse-geocoding", key = "{#latitude,#longitude}")
+     * @Cacheable(cacheNames = "reverse-geocoding", key = "#cacheKey")
      */
-    @Cacheable(cacheNames = "reverse-geocoding", key = "{#latitude,#longitude}")
-    public AddressDTO getReverseGeocoding(Double latitude, Double longitude) {
+    @Cacheable(cacheNames = "reverse-geocoding", key = "#cacheKey")
+    public AddressDTO getReverseGeocoding(Object cacheKey, Double latitude, Double longitude) {
         log.info("Fetching reverse geocoding data for latitude: {} and longitude: {} in service", latitude, longitude);
+        AddressDTO addressDTO = null;
+        if (latitude != null && longitude != null) {
+            addressDTO = spatialAddressIndex.findNearby(latitude, longitude);
+        }
+        if (addressDTO == null) {
+            addressDTO = persistentCacheTier.get("reverse-geocoding", cacheKey, AddressDTO.class);
+        }
+        if (addressDTO == null) {
+            addressDTO = requestCoalescer.execute("reverse-geocoding", cacheKey,
+                    () -> publish("reverse-geocoding", cacheKey, fetchReverseGeocoding(cacheKey, latitude, longitude)));
+        }
+        cacheRefreshService.recordWrite("reverse-geocoding", cacheKey);
+        return addressDTO;
+    }
+
+    /**
+     * Fetches geocoding data for an address from the upstream service, bypassing the cache, and persists
+     * the result to the disk tier unless the address is never cached.
+     *
+     * @param cacheKey the normalized address used as the cache key.
+     * @param address  the address to geocode, as provided by the caller.
+     * @return a {@link LocationDTO} containing the geocoded details.
+     */
+    public LocationDTO fetchGeocoding(String cacheKey, String address) {
+        Address geocoded = clientService.getGeocoding(address);
+        LocationDTO locationDTO = dtoMapper.mapToLocationDTO(geocoded);
+        if (isPersistable(cacheKey)) {
+            persistentCacheTier.put("geocoding", cacheKey, locationDTO);
+        }
+        return locationDTO;
+    }
+
+    /**
+     * Fetches reverse geocoding data for coordinates from the upstream service, bypassing the cache,
+     * records the resolved point in the spatial index and persists the result to the disk tier.
+     *
+     * @param cacheKey  the reverse geocoding cache key for the coordinates.
+     * @param latitude  the latitude of the location.
+     * @param longitude the longitude of the location.
+     * @return an {@link AddressDTO} containing reverse geocoding details.
+     */
+    public AddressDTO fetchReverseGeocoding(Object cacheKey, Double latitude, Double longitude) {
         Address reverseCoded = clientService.getReverseGeocoding(latitude, longitude);
-        return dtoMapper.mapToAddressDTO(reverseCoded);
+        AddressDTO addressDTO = dtoMapper.mapToAddressDTO(reverseCoded);
+        spatialAddressIndex.add(latitude, longitude, addressDTO);
+        persistentCacheTier.put("reverse-geocoding", cacheKey, addressDTO);
+        return addressDTO;
+    }
+
+    /**
+     * Asynchronous variant of {@link #getGeocoding(String, String)}, with the same cache, disk tier and
+     * coalescing behaviour.
+     *
+     * @param cacheKey the normalized address used as the cache key.
+     * @param address  the address to geocode, as provided by the caller.
+     * @return a future completed with a {@link LocationDTO} containing the geocoded details.
+     */
+    public CompletableFuture<LocationDTO> getGeocodingAsync(String cacheKey, String address) {
+        Cache cache = cacheManager.getCache("geocoding");
+        LocationDTO cached = cache != null && cacheKey != null ? cache.get(cacheKey, LocationDTO.class) : null;
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        log.info("Fetching geocoding data asynchronously for address: {} in service", address);
+        LocationDTO persisted = isPersistable(cacheKey) ? persistentCacheTier.get("geocoding", cacheKey, LocationDTO.class) : null;
+        if (persisted != null) {
+            return CompletableFuture.completedFuture(publish("geocoding", cacheKey, persisted));
+        }
+        return requestCoalescer.executeAsync("geocoding", cacheKey, () -> fetchGeocodingAsync(cacheKey, address)
+                        .thenApply(fetched -> isPersistable(cacheKey) ? publish("geocoding", cacheKey, fetched) : fetched))
+                .exceptionally(error -> staleOrThrow("geocoding", cacheKey, LocationDTO.class, error));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getReverseGeocoding(Object, Double, Double)}, with the same cache,
+     * spatial index, disk tier and coalescing behaviour.
+     *
+     * @param cacheKey  the reverse geocoding cache key for the coordinates.
+     * @param latitude  the latitude of the location.
+     * @param longitude the longitude of the location.
+     * @return a future completed with an {@link AddressDTO} containing reverse geocoding details.
+     */
+    public CompletableFuture<AddressDTO> getReverseGeocodingAsync(Object cacheKey, Double latitude, Double longitude) {
+        Cache cache = cacheManager.getCache("reverse-geocoding");
+        AddressDTO cached = cache != null ? cache.get(cacheKey, AddressDTO.class) : null;
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        log.info("Fetching reverse geocoding data asynchronously for latitude: {} and longitude: {} in service", latitude, longitude);
+        AddressDTO addressDTO = null;
+        if (latitude != null && longitude != null) {
+            addressDTO = spatialAddressIndex.findNearby(latitude, longitude);
+        }
+        if (addressDTO == null) {
+            addressDTO = persistentCacheTier.get("reverse-geocoding", cacheKey, AddressDTO.class);
+        }
+        if (addressDTO != null) {
+            return CompletableFuture.completedFuture(publish("reverse-geocoding", cacheKey, addressDTO));
+        }
+        return requestCoalescer.executeAsync("reverse-geocoding", cacheKey,
+                        () -> fetchReverseGeocodingAsync(cacheKey, latitude, longitude)
+                                .thenApply(fetched -> publish("reverse-geocoding", cacheKey, fetched)))
+                .exceptionally(error -> staleOrThrow("reverse-geocoding", cacheKey, AddressDTO.class, error));
+    }
+
+    /**
+     * Asynchronous variant of {@link #fetchGeocoding(String, String)}.
+     *
+     * @param cacheKey the normalized address used as the cache key.
+     * @param address  the address to geocode, as provided by the caller.
+     * @return a future completed with a {@link LocationDTO} containing the geocoded details.
+     */
+    public CompletableFuture<LocationDTO> fetchGeocodingAsync(String cacheKey, String address) {
+        return asyncClientService.getGeocoding(address).thenApply(geocoded -> {
+            LocationDTO locationDTO = dtoMapper.mapToLocationDTO(geocoded);
+            if (isPersistable(cacheKey)) {
+                persistentCacheTier.put("geocoding", cacheKey, locationDTO);
+            }
+            return locationDTO;
+        });
+    }
+
+    /**
+     * Asynchronous variant of {@link #fetchReverseGeocoding(Object, Double, Double)}.
+     *
+     * @param cacheKey  the reverse geocoding cache key for the coordinates.
+     * @param latitude  the latitude of the location.
+     * @param longitude the longitude of the location.
+     * @return a future completed with an {@link AddressDTO} containing reverse geocoding details.
+     */
+    public CompletableFuture<AddressDTO> fetchReverseGeocodingAsync(Object cacheKey, Double latitude, Double longitude) {
+        return asyncClientService.getReverseGeocoding(latitude, longitude).thenApply(reverseCoded -> {
+            AddressDTO addressDTO = dtoMapper.mapToAddressDTO(reverseCoded);
+            spatialAddressIndex.add(latitude, longitude, addressDTO);
+            persistentCacheTier.put("reverse-geocoding", cacheKey, addressDTO);
+            return addressDTO;
+        });
+    }
+
+    /**
+     * Writes a value to the in-memory cache and records its write time. Loaders run through the
+     * {@link RequestCoalescer} call this before returning, so the value is in the cache before the in-flight
+     * call is released and a caller arriving in between cannot miss both.
+     *
+     * @param cacheName the name of the cache.
+     * @param key       the cache key.
+     * @param value     the value to cache; {@code null} is not cached.
+     * @param <T>       the value type.
+     * @return the value.
+     */
+    private <T> T publish(String cacheName, Object key, T value) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && value != null) {
+            cache.put(key, value);
+            cacheRefreshService.recordWrite(cacheName, key);
+        }
+        return value;
+    }
+
+    /**
+     * Answers a lookup that found the provider circuit open with a stale disk tier entry, without caching it.
+     *
+     * @param cacheName the name of the cache.
+     * @param key       the cache key.
+     * @param type      the expected value type.
+     * @param error     the open circuit failure, rethrown if no entry is stored.
+     * @param <T>       the value type.
+     * @return the stale value.
+     */
+    public <T> T getStale(String cacheName, Object key, Class<T> type, UpstreamUnavailableException error) {
+        return staleOrThrow(cacheName, key, type, error);
+    }
+
+    /**
+     * Answers a failed lookup with a stale disk tier entry if the failure is an open provider circuit,
+     * otherwise rethrows the failure. The stale entry is not cached.
+     *
+     * @param cacheName the name of the cache.
+     * @param key       the cache key.
+     * @param type      the expected value type.
+     * @param error     the failure of the upstream lookup, possibly wrapped by a dependent stage.
+     * @param <T>       the value type.
+     * @return the stale value.
+     */
+    private <T> T staleOrThrow(String cacheName, Object key, Class<T> type, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof UpstreamUnavailableException) {
+            T stale = persistentCacheTier.getStale(cacheName, key, type);
+            if (stale != null) {
+                log.warn("Provider unavailable, serving stale {} entry for key: {}", cacheName, key);
+                return stale;
+            }
+        }
+        throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+    }
+
+    /**
+     * Returns whether results for the normalized address may be stored outside the request, mirroring the
+     * {@code unless} condition of the geocoding cache.
+     */
+    private static boolean isPersistable(String cacheKey) {
+        return cacheKey != null && !cacheKey.equalsIgnoreCase(UNCACHED_ADDRESS);
     }
 }
@@ -0,0 +1,123 @@
+package com.caching.service.negativecache;
+
+import com.caching.exception.InvalidAddressException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Service rejecting addresses that recently failed to resolve, in constant memory.
+ *
+ * <p>The {@link NegativeResultCache} stores each failed lookup and is bounded in size, so a flood of distinct
+ * garbage addresses evicts its entries long before they expire. This filter records every failed normalized
+ * address in a {@link RotatingBloomFilter} instead, whose memory does not grow with the number of addresses.
+ * An address is forgotten after between {@code failed-address-filter.slices - 1} and
+ * {@code failed-address-filter.slices} rotations of {@code failed-address-filter.slice-duration-ms}.
+ *
+ * <p>A Bloom filter can report an address it never saw. To keep such false positives from rejecting a valid
+ * address that is already cached, an address found in the geocoding cache is never rejected.
+ */
+@Slf4j
+@Service
+public class FailedAddressFilter {
+
+    /**
+     * Spring's cache manager, used to let cached addresses through.
+     */
+    private final CacheManager cacheManager;
+
+    /**
+     * Whether failed addresses are filtered, retrieved from application properties.
+     */
+    @Value("${failed-address-filter.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Number of time slices, retrieved from application properties.
+     */
+    @Value("${failed-address-filter.slices:4}")
+    private int sliceCount;
+
+    /**
+     * Expected number of failed addresses per slice, retrieved from application properties.
+     */
+    @Value("${failed-address-filter.expected-insertions:500000}")
+    private long expectedInsertions;
+
+    /**
+     * Target false positive rate of the filter across all slices, retrieved from application properties.
+     */
+    @Value("${failed-address-filter.false-positive-rate:0.0001}")
+    private double falsePositiveRate;
+
+    /**
+     * The filter of failed addresses.
+     */
+    private RotatingBloomFilter filter;
+
+    /**
+     * Constructs a new {@code FailedAddressFilter}.
+     *
+     * @param cacheManager Spring's cache manager.
+     */
+    public FailedAddressFilter(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Allocates the filter.
+     */
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            filter = new RotatingBloomFilter(sliceCount, expectedInsertions, falsePositiveRate);
+            log.info("Failed address filter allocated {} KiB over {} slices", filter.sizeInBytes() / 1024, sliceCount);
+        }
+    }
+
+    /**
+     * Rejects an address that recently failed to resolve.
+     *
+     * @param address the normalized address.
+     * @throws InvalidAddressException if the address probably failed recently and is not cached.
+     */
+    public void rejectIfFailed(String address) {
+        if (filter == null || address == null || !filter.mightContain(address)) {
+            return;
+        }
+        Cache cache = cacheManager.getCache("geocoding");
+        if (cache != null && cache.get(address) != null) {
+            return;
+        }
+        log.info("Failed address filter rejected address: {}", address);
+        throw new InvalidAddressException("No results found for the given address: " + address);
+    }
+
+    /**
+     * Records an address whose lookup failed.
+     *
+     * @param address the normalized address.
+     * @param error   the failure of the lookup; only {@link InvalidAddressException}s are recorded.
+     */
+    public void record(String address, Throwable error) {
+        if (filter != null && address != null && error instanceof InvalidAddressException) {
+            filter.put(address);
+        }
+    }
+
+    /**
+     * Starts a new time slice, forgetting the addresses recorded in the oldest one.
+     */
+    @Scheduled(fixedDelayString = "${failed-address-filter.slice-duration-ms:900000}",
+            initialDelayString = "${failed-address-filter.slice-duration-ms:900000}")
+    public void rotate() {
+        if (filter != null) {
+            filter.rotate();
+        }
+    }
+}
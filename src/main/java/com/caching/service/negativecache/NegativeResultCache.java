@@ -0,0 +1,92 @@
+/**
+ * Service remembering lookups that could not be resolved, so repeated requests for the same junk address or
+ * coordinates are rejected locally instead of reaching the upstream service again.
+ *
+ * <p>Failures are kept in a separate cache per lookup cache, named after it with a {@code -negative} suffix
+ * (for example {@code geocoding-negative}), with its own short TTL and size bound configured under
+ * {@code caching.caches}. Only {@link InvalidAddressException}s are recorded: they describe the request itself,
+ * whereas upstream errors and timeouts may succeed on the next attempt. A negative cache that is not configured
+ * is not used, so failures are never held in an unbounded cache without expiry.
+ */
+package com.caching.service.negativecache;
+
+import com.caching.config.CacheSpecProperties;
+import com.caching.exception.InvalidAddressException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class NegativeResultCache {
+
+    /**
+     * Suffix appended to a lookup cache name to form the name of its negative cache.
+     */
+    private static final String NEGATIVE_SUFFIX = "-negative";
+
+    /**
+     * Spring's cache manager holding the negative caches.
+     */
+    private final CacheManager cacheManager;
+
+    /**
+     * Per-cache specifications, used to check that a negative cache is bounded.
+     */
+    private final CacheSpecProperties cacheSpecProperties;
+
+    /**
+     * Whether failed lookups are remembered, retrieved from application properties.
+     */
+    @Value("${negative-cache.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Rejects a lookup that failed recently.
+     *
+     * @param cacheName the name of the lookup cache.
+     * @param key       the lookup cache key.
+     * @throws InvalidAddressException with the original message if the lookup failed recently.
+     */
+    public void rejectIfKnown(String cacheName, Object key) {
+        Cache cache = negativeCache(cacheName);
+        if (cache == null || key == null) {
+            return;
+        }
+        String message = cache.get(key, String.class);
+        if (message != null) {
+            log.info("Negative cache hit in {} for key: {}", cacheName, key);
+            throw new InvalidAddressException(message);
+        }
+    }
+
+    /**
+     * Remembers a failed lookup.
+     *
+     * @param cacheName the name of the lookup cache.
+     * @param key       the lookup cache key.
+     * @param error     the failure of the lookup.
+     */
+    public void record(String cacheName, Object key, Throwable error) {
+        Cache cache = negativeCache(cacheName);
+        if (cache == null || key == null || !(error instanceof InvalidAddressException)) {
+            return;
+        }
+        cache.put(key, String.valueOf(error.getMessage()));
+    }
+
+    /**
+     * Returns the negative cache of a lookup cache, or {@code null} if it is disabled or not configured.
+     */
+    private Cache negativeCache(String cacheName) {
+        String negativeCacheName = cacheName + NEGATIVE_SUFFIX;
+        if (!enabled || cacheSpecProperties.getSpec(negativeCacheName) == null) {
+            return null;
+        }
+        return cacheManager.getCache(negativeCacheName);
+    }
+}
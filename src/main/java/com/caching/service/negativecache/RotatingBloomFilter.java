@@ -0,0 +1,154 @@
+package com.caching.service.negativecache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Time-sliced Bloom filter of strings.
+ *
+ * <p>The filter consists of a fixed number of equally sized slices. Insertions go into the current slice and
+ * lookups check every slice. {@link #rotate()} clears the oldest slice and makes it the current one, so a value
+ * is remembered for between {@code slices - 1} and {@code slices} rotation periods and then forgotten without
+ * tracking individual entries. Memory use is fixed at construction regardless of how many values are inserted.
+ *
+ * <p>Slices are sized for the expected number of insertions per rotation period. A lookup is a false positive if
+ * any slice reports one, so the false positive rate of the filter is about the sum of the slice rates. Each slice
+ * is therefore sized for the target rate divided by the number of slices. Each value is hashed once into two 64-bit hashes, from which the bit positions are derived by double
+ * hashing. Bits are set with atomic operations, so insertions and lookups need no lock.
+ */
+public class RotatingBloomFilter {
+
+    /**
+     * Bit arrays of the slices; {@code slices[current]} receives insertions.
+     */
+    private final AtomicLongArray[] slices;
+
+    /**
+     * Number of bits per slice.
+     */
+    private final long bitsPerSlice;
+
+    /**
+     * Number of bit positions per value.
+     */
+    private final int hashFunctions;
+
+    /**
+     * Index of the slice receiving insertions.
+     */
+    private volatile int current;
+
+    /**
+     * Constructs a new {@code RotatingBloomFilter}.
+     *
+     * @param sliceCount         the number of slices, at least 2.
+     * @param expectedInsertions the expected number of insertions per rotation period.
+     * @param falsePositiveRate  the target false positive rate of the whole filter.
+     */
+    public RotatingBloomFilter(int sliceCount, long expectedInsertions, double falsePositiveRate) {
+        this.slices = new AtomicLongArray[Math.max(2, sliceCount)];
+        long insertions = Math.max(1, expectedInsertions);
+        double sliceFalsePositiveRate = falsePositiveRate / slices.length;
+        double bits = -insertions * Math.log(sliceFalsePositiveRate) / (Math.log(2) * Math.log(2));
+        long words = Math.max(1, (long) Math.ceil(bits / Long.SIZE));
+        if (words > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom filter slice too large: " + (long) bits + " bits");
+        }
+        this.bitsPerSlice = words * Long.SIZE;
+        this.hashFunctions = Math.max(1, (int) Math.round(bitsPerSlice / (double) insertions * Math.log(2)));
+        for (int i = 0; i < slices.length; i++) {
+            slices[i] = new AtomicLongArray((int) words);
+        }
+    }
+
+    /**
+     * Records a value in the current slice.
+     *
+     * @param value the value to record.
+     */
+    public void put(String value) {
+        AtomicLongArray slice = slices[current];
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitsPerSlice);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long bits = slice.get(word);
+            while ((bits & mask) == 0 && !slice.compareAndSet(word, bits, bits | mask)) {
+                bits = slice.get(word);
+            }
+        }
+    }
+
+    /**
+     * Returns whether a value may have been recorded within the retention window.
+     *
+     * @param value the value to look up.
+     * @return {@code false} if the value was definitely not recorded, {@code true} if it probably was.
+     */
+    public boolean mightContain(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (AtomicLongArray slice : slices) {
+            if (contains(slice, hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Clears the oldest slice and makes it the slice receiving insertions.
+     */
+    public synchronized void rotate() {
+        int next = (current + 1) % slices.length;
+        AtomicLongArray slice = slices[next];
+        for (int i = 0; i < slice.length(); i++) {
+            slice.set(i, 0L);
+        }
+        current = next;
+    }
+
+    /**
+     * Returns the memory used by the bit arrays, in bytes.
+     *
+     * @return the size of all slices in bytes.
+     */
+    public long sizeInBytes() {
+        return slices.length * bitsPerSlice / Byte.SIZE;
+    }
+
+    private boolean contains(AtomicLongArray slice, long hash1, long hash2) {
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitsPerSlice);
+            if ((slice.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the characters of a string, finalized with a bit mixer.
+     */
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * The MurmurHash3 64-bit finalizer, spreading every input bit over the whole output.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Service that reduces free-form addresses to a canonical form before they are used as cache keys.
+ *
+ * <p>The pipeline applies, in order: Unicode NFKC normalization, case folding, punctuation stripping,
+ * whitespace collapsing and expansion of common street abbreviations. Queries that differ only in these
+ * respects, such as "New Delhi", "new delhi " and "NEW  DELHI", therefore map to the same cache entry and
+ * the same upstream call. The canonical form is only a key: the address as provided by the caller is what
+ * is sent to the upstream service.
+ */
+package com.caching.service.normalization;
+
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+@Service
+public class AddressNormalizer {
+
+    /**
+     * Matches runs of punctuation, which are replaced by a single space.
+     */
+    private static final Pattern PUNCTUATION = Pattern.compile("\\p{P}+");
+
+    /**
+     * Matches runs of whitespace, including Unicode spaces left after NFKC normalization.
+     */
+    private static final Pattern WHITESPACE = Pattern.compile("[\\s\\p{Z}]+");
+
+    /**
+     * Common address abbreviations and their expansions, applied to whole tokens only. Ambiguous
+     * abbreviations such as "st" (street or saint) and "dr" (drive or doctor) are left as they are, as are
+     * two-letter abbreviations that collide with US state codes, such as "ct" (court or Connecticut) and
+     * "mt" (mount or Montana).
+     */
+    private static final Map<String, String> ABBREVIATIONS = new HashMap<>();
+
+    static {
+        ABBREVIATIONS.put("str", "street");
+        ABBREVIATIONS.put("rd", "road");
+        ABBREVIATIONS.put("ave", "avenue");
+        ABBREVIATIONS.put("av", "avenue");
+        ABBREVIATIONS.put("blvd", "boulevard");
+        ABBREVIATIONS.put("ln", "lane");
+        ABBREVIATIONS.put("hwy", "highway");
+        ABBREVIATIONS.put("pkwy", "parkway");
+        ABBREVIATIONS.put("sq", "square");
+        ABBREVIATIONS.put("apt", "apartment");
+        ABBREVIATIONS.put("bldg", "building");
+    }
+
+    /**
+     * Normalizes an address to its canonical form.
+     *
+     * @param address the address as provided by the caller.
+     * @return the canonical address, or {@code null} if {@code address} is {@code null}.
+     */
+    public String normalize(String address) {
+        if (address == null) {
+            return null;
+        }
+        String normalized = Normalizer.normalize(address, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        normalized = PUNCTUATION.matcher(normalized).replaceAll(" ");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        if (normalized.isEmpty()) {
+            return normalized;
+        }
+
+        StringBuilder canonical = new StringBuilder(normalized.length() + 16);
+        for (String token : normalized.split(" ")) {
+            if (canonical.length() > 0) {
+                canonical.append(' ');
+            }
+            canonical.append(ABBREVIATIONS.getOrDefault(token, token));
+        }
+        return canonical.toString();
+    }
+}
@@ -0,0 +1,429 @@
+package com.caching.service.offheap;
+
+import com.caching.service.cacherefresh.WriteTimeAwareCache;
+import com.caching.service.persistence.CacheEntryCodec;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Spring {@link org.springframework.cache.Cache} storing its entries outside the Java heap.
+ *
+ * <p>Entries are encoded with {@link CacheEntryCodec} into direct {@link ByteBuffer}s, so a cache of
+ * millions of addresses costs the garbage collector a handful of buffer objects instead of millions of
+ * strings and DTOs. The cache is split into segments, each with its own lock, a ring buffer of records and
+ * an open-addressing hash index with linear probing, also held in direct memory. An index slot packs the
+ * key's hash into its upper 32 bits and the record's position into its lower 32 bits, so a probe compares
+ * hashes without touching the record and only compares the encoded key bytes on a hash match.
+ *
+ * <p>When a segment's ring buffer or index is full, the oldest written records are evicted first.
+ * Replacing a key leaves its old record in the ring as garbage until the ring wraps past it. Entries older
+ * than the expire-after-write duration are treated as absent. Only keys and values supported by
+ * {@link CacheEntryCodec} can be stored, and {@code null} values are not allowed.
+ */
+public class OffHeapCache extends AbstractValueAdaptingCache implements WriteTimeAwareCache {
+
+    /**
+     * Number of independently locked segments.
+     */
+    private static final int SEGMENT_COUNT = 16;
+
+    /**
+     * Record header: the encoded entry's length and the key's hash, both {@code int}s.
+     */
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    /**
+     * Bytes of ring buffer per index slot. Records are always larger, so the index stays below
+     * three quarters full.
+     */
+    private static final int BYTES_PER_SLOT = 24;
+
+    /**
+     * Smallest segment capacity in bytes.
+     */
+    private static final int MIN_SEGMENT_BYTES = 4096;
+
+    private final String name;
+
+    /**
+     * Expire-after-write duration in milliseconds, or {@link Long#MAX_VALUE} if entries do not expire.
+     */
+    private final long expireAfterWriteMillis;
+
+    private final Segment[] segments;
+
+    /**
+     * Constructs a new {@code OffHeapCache}, allocating all of its direct memory up front.
+     *
+     * @param name             the name of the cache.
+     * @param capacityBytes    the total size of the ring buffers in bytes. The hash index takes roughly a
+     *                         third as much on top.
+     * @param expireAfterWrite the time after which entries expire, or {@code null} for none.
+     * @throws IllegalArgumentException if a segment would exceed the 2 GB limit of a {@link ByteBuffer}.
+     */
+    public OffHeapCache(String name, long capacityBytes, Duration expireAfterWrite) {
+        super(false);
+        long segmentBytes = Math.max(MIN_SEGMENT_BYTES, capacityBytes / SEGMENT_COUNT);
+        if (segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Off-heap capacity of cache " + name + " too large: " + capacityBytes);
+        }
+        this.name = name;
+        this.expireAfterWriteMillis = expireAfterWrite != null ? expireAfterWrite.toMillis() : Long.MAX_VALUE;
+        this.segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment((int) segmentBytes);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        if (!CacheEntryCodec.supportsKey(key)) {
+            return null;
+        }
+        byte[] encodedKey = CacheEntryCodec.encodeKey(key);
+        int hash = hash(encodedKey);
+        Segment segment = segmentFor(hash);
+        CacheEntryCodec.Entry entry = segment.get(encodedKey, hash);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.getWriteTime() > expireAfterWriteMillis) {
+            segment.remove(encodedKey, hash);
+            return null;
+        }
+        return entry.getValue();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * Stores an entry, replacing any previous entry for the key.
+     *
+     * @param key   the cache key.
+     * @param value the value to store.
+     * @throws IllegalArgumentException if the key or value cannot be encoded or the value is {@code null}.
+     */
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        if (!CacheEntryCodec.supports(key, storeValue)) {
+            throw new IllegalArgumentException("Off-heap cache " + name + " cannot store " + key + " -> " + value);
+        }
+        byte[] encodedKey = CacheEntryCodec.encodeKey(key);
+        int hash = hash(encodedKey);
+        segmentFor(hash).put(encodedKey, hash, CacheEntryCodec.encode(key, storeValue, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void evict(Object key) {
+        if (CacheEntryCodec.supportsKey(key)) {
+            byte[] encodedKey = CacheEntryCodec.encodeKey(key);
+            int hash = hash(encodedKey);
+            segmentFor(hash).remove(encodedKey, hash);
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Returns the time the entry for the key was written, without decoding its value.
+     *
+     * @param key the cache key.
+     * @return the write timestamp in milliseconds, or {@code null} if the key is not cached.
+     */
+    @Override
+    public Long getWriteTime(Object key) {
+        if (!CacheEntryCodec.supportsKey(key)) {
+            return null;
+        }
+        byte[] encodedKey = CacheEntryCodec.encodeKey(key);
+        int hash = hash(encodedKey);
+        long writeTime = segmentFor(hash).writeTime(encodedKey, hash);
+        return writeTime >= 0 ? writeTime : null;
+    }
+
+    /**
+     * Returns the number of entries currently stored, including expired entries not yet removed.
+     *
+     * @return the number of entries.
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[(hash >>> 28) & (SEGMENT_COUNT - 1)];
+    }
+
+    /**
+     * Hashes an encoded key, spreading the bits so that both the segment (upper bits) and the index slot
+     * (lower bits) are well distributed.
+     */
+    private static int hash(byte[] encodedKey) {
+        int hash = Arrays.hashCode(encodedKey) * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * A ring buffer of records and its hash index, guarded by a read-write lock.
+     *
+     * <p>Records are laid out as {@code [int length][int hash][entry]}. While the ring is not wrapped, records
+     * occupy {@code [head, tail)}; once it is wrapped they occupy {@code [head, end)} followed by
+     * {@code [0, tail)}.
+     */
+    private static final class Segment {
+
+        private final ByteBuffer data;
+        private final LongBuffer index;
+        private final int mask;
+        private final int maxEntries;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private int head;
+        private int tail;
+        private int end;
+        private boolean wrapped;
+
+        /**
+         * Records in the ring, including replaced and removed ones not yet overwritten.
+         */
+        private int records;
+
+        /**
+         * Entries reachable through the index.
+         */
+        private int entries;
+
+        Segment(int capacity) {
+            int slots = Math.max(16, Integer.highestOneBit(Math.max(1, capacity / BYTES_PER_SLOT - 1)) << 1);
+            this.data = ByteBuffer.allocateDirect(capacity);
+            this.index = ByteBuffer.allocateDirect(slots * Long.BYTES).asLongBuffer();
+            this.mask = slots - 1;
+            this.maxEntries = slots / 4 * 3;
+        }
+
+        CacheEntryCodec.Entry get(byte[] encodedKey, int hash) {
+            lock.readLock().lock();
+            try {
+                int slot = findSlot(encodedKey, hash);
+                if (slot < 0) {
+                    return null;
+                }
+                ByteBuffer source = data.duplicate();
+                source.position(position(index.get(slot)) + HEADER_BYTES);
+                return CacheEntryCodec.decode(source);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        long writeTime(byte[] encodedKey, int hash) {
+            lock.readLock().lock();
+            try {
+                int slot = findSlot(encodedKey, hash);
+                return slot < 0 ? -1 : data.getLong(position(index.get(slot)) + HEADER_BYTES);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void put(byte[] encodedKey, int hash, byte[] entry) {
+            int length = HEADER_BYTES + entry.length;
+            if (length > data.capacity()) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                int slot = findSlot(encodedKey, hash);
+                if (slot >= 0) {
+                    deleteSlot(slot);
+                }
+                while (entries >= maxEntries) {
+                    evictOldest();
+                }
+                int position = allocate(length);
+                data.putInt(position, entry.length);
+                data.putInt(position + Integer.BYTES, hash);
+                ByteBuffer target = data.duplicate();
+                target.position(position + HEADER_BYTES);
+                target.put(entry);
+                records++;
+                insert(hash, position);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(byte[] encodedKey, int hash) {
+            lock.writeLock().lock();
+            try {
+                int slot = findSlot(encodedKey, hash);
+                if (slot >= 0) {
+                    deleteSlot(slot);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void clear() {
+            lock.writeLock().lock();
+            try {
+                for (int i = 0; i <= mask; i++) {
+                    index.put(i, 0L);
+                }
+                head = tail = end = 0;
+                wrapped = false;
+                records = entries = 0;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return entries;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Reserves {@code length} contiguous bytes at the tail of the ring, evicting the oldest records
+         * until they fit. The caller guarantees that {@code length} does not exceed the capacity.
+         */
+        private int allocate(int length) {
+            while (true) {
+                if (records == 0) {
+                    head = tail = end = 0;
+                    wrapped = false;
+                }
+                if (!wrapped) {
+                    if (data.capacity() - tail >= length) {
+                        int position = tail;
+                        tail += length;
+                        return position;
+                    }
+                    end = tail;
+                    tail = 0;
+                    wrapped = true;
+                } else if (head - tail >= length) {
+                    int position = tail;
+                    tail += length;
+                    return position;
+                } else {
+                    evictOldest();
+                }
+            }
+        }
+
+        /**
+         * Drops the record at the head of the ring, removing it from the index unless it was already
+         * replaced or removed.
+         */
+        private void evictOldest() {
+            int position = head;
+            int hash = data.getInt(position + Integer.BYTES);
+            head += HEADER_BYTES + data.getInt(position);
+            records--;
+            if (wrapped && head >= end) {
+                head = 0;
+                wrapped = false;
+            }
+            for (int i = hash & mask; index.get(i) != 0; i = (i + 1) & mask) {
+                if (position(index.get(i)) == position) {
+                    deleteSlot(i);
+                    return;
+                }
+            }
+        }
+
+        private int findSlot(byte[] encodedKey, int hash) {
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                long slot = index.get(i);
+                if (slot == 0) {
+                    return -1;
+                }
+                if ((int) (slot >>> 32) == hash
+                        && CacheEntryCodec.keyEquals(data, position(slot) + HEADER_BYTES, encodedKey)) {
+                    return i;
+                }
+            }
+        }
+
+        private void insert(int hash, int position) {
+            int i = hash & mask;
+            while (index.get(i) != 0) {
+                i = (i + 1) & mask;
+            }
+            index.put(i, ((long) hash << 32) | (position + 1L));
+            entries++;
+        }
+
+        /**
+         * Empties an index slot, shifting later slots of the same probe run back so that lookups never
+         * stop early at the hole and no tombstones are needed.
+         */
+        private void deleteSlot(int hole) {
+            for (int i = (hole + 1) & mask; ; i = (i + 1) & mask) {
+                long slot = index.get(i);
+                if (slot == 0) {
+                    break;
+                }
+                int home = (int) (slot >>> 32) & mask;
+                boolean reachable = hole <= i ? hole < home && home <= i : hole < home || home <= i;
+                if (!reachable) {
+                    index.put(hole, slot);
+                    hole = i;
+                }
+            }
+            index.put(hole, 0L);
+            entries--;
+        }
+
+        private static int position(long slot) {
+            return (int) slot - 1;
+        }
+    }
+}
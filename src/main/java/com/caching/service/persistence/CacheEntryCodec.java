@@ -0,0 +1,189 @@
+package com.caching.service.persistence;
+
+import com.caching.dto.out.AddressDTO;
+import com.caching.dto.out.LocationDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary codec for persisted cache entries.
+ *
+ * <p>An encoded entry is laid out as: write timestamp ({@code long}), key, value. Keys are either strings
+ * (addresses and geohash cells) or latitude/longitude pairs; values are {@link LocationDTO} or
+ * {@link AddressDTO}. Each key and value is prefixed with a one-byte type tag, and strings are stored as a
+ * length-prefixed UTF-8 byte sequence, with a length of {@code -1} for {@code null}.
+ */
+public final class CacheEntryCodec {
+
+    private static final byte STRING_KEY = 0;
+    private static final byte COORDINATE_KEY = 1;
+    private static final byte LOCATION_VALUE = 0;
+    private static final byte ADDRESS_VALUE = 1;
+
+    private CacheEntryCodec() {
+    }
+
+    /**
+     * Returns whether the key and value can be encoded by this codec.
+     *
+     * @param key   the cache key.
+     * @param value the cache value.
+     * @return {@code true} if both are supported types.
+     */
+    public static boolean supports(Object key, Object value) {
+        return supportsKey(key) && (value instanceof LocationDTO || value instanceof AddressDTO);
+    }
+
+    /**
+     * Returns whether the key can be encoded by this codec.
+     *
+     * @param key the cache key.
+     * @return {@code true} if the key is a string or a latitude/longitude pair.
+     */
+    public static boolean supportsKey(Object key) {
+        return key instanceof String || isCoordinateKey(key);
+    }
+
+    /**
+     * Encodes an entry.
+     *
+     * @param key       the cache key.
+     * @param value     the cache value.
+     * @param writeTime the write timestamp in milliseconds.
+     * @return the encoded entry.
+     * @throws IllegalArgumentException if the key or value type is not supported.
+     */
+    public static byte[] encode(Object key, Object value, long writeTime) {
+        if (!supports(key, value)) {
+            throw new IllegalArgumentException("Unsupported cache entry: " + key + " -> " + value);
+        }
+        byte[] encodedKey = encodeKey(key);
+        String label = value instanceof AddressDTO ? ((AddressDTO) value).getAddress() : null;
+        byte[] labelBytes = label != null ? label.getBytes(StandardCharsets.UTF_8) : null;
+
+        int size = Long.BYTES + encodedKey.length + 1
+                + (value instanceof LocationDTO ? 2 * Double.BYTES : Integer.BYTES + (labelBytes != null ? labelBytes.length : 0));
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(writeTime);
+        buffer.put(encodedKey);
+        if (value instanceof LocationDTO) {
+            LocationDTO location = (LocationDTO) value;
+            buffer.put(LOCATION_VALUE).putDouble(location.getLatitude()).putDouble(location.getLongitude());
+        } else if (labelBytes != null) {
+            buffer.put(ADDRESS_VALUE).putInt(labelBytes.length).put(labelBytes);
+        } else {
+            buffer.put(ADDRESS_VALUE).putInt(-1);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes an entry from the buffer's current position, advancing the position past it.
+     *
+     * @param buffer the buffer holding the encoded entry.
+     * @return the decoded entry.
+     * @throws IllegalArgumentException if the buffer does not hold a valid entry.
+     */
+    public static Entry decode(ByteBuffer buffer) {
+        long writeTime = buffer.getLong();
+        Object key;
+        byte keyType = buffer.get();
+        if (keyType == STRING_KEY) {
+            key = readString(buffer);
+        } else if (keyType == COORDINATE_KEY) {
+            key = Arrays.asList(buffer.getDouble(), buffer.getDouble());
+        } else {
+            throw new IllegalArgumentException("Unknown key type: " + keyType);
+        }
+        Object value;
+        byte valueType = buffer.get();
+        if (valueType == LOCATION_VALUE) {
+            value = new LocationDTO(buffer.getDouble(), buffer.getDouble());
+        } else if (valueType == ADDRESS_VALUE) {
+            value = new AddressDTO(readString(buffer));
+        } else {
+            throw new IllegalArgumentException("Unknown value type: " + valueType);
+        }
+        return new Entry(key, value, writeTime);
+    }
+
+    /**
+     * Encodes a key exactly as it appears in an encoded entry, right after the write timestamp.
+     *
+     * @param key the cache key.
+     * @return the encoded key.
+     * @throws IllegalArgumentException if the key type is not supported.
+     */
+    public static byte[] encodeKey(Object key) {
+        if (key instanceof String) {
+            byte[] keyBytes = ((String) key).getBytes(StandardCharsets.UTF_8);
+            return ByteBuffer.allocate(1 + Integer.BYTES + keyBytes.length)
+                    .put(STRING_KEY).putInt(keyBytes.length).put(keyBytes).array();
+        }
+        if (isCoordinateKey(key)) {
+            List<?> coordinates = (List<?>) key;
+            return ByteBuffer.allocate(1 + 2 * Double.BYTES)
+                    .put(COORDINATE_KEY)
+                    .putDouble(((Number) coordinates.get(0)).doubleValue())
+                    .putDouble(((Number) coordinates.get(1)).doubleValue())
+                    .array();
+        }
+        throw new IllegalArgumentException("Unsupported cache key: " + key);
+    }
+
+    /**
+     * Returns whether the entry encoded at the given absolute position holds the given encoded key. The
+     * buffer's position is not changed and nothing is decoded.
+     *
+     * @param buffer     the buffer holding the encoded entry.
+     * @param position   the absolute position of the entry.
+     * @param encodedKey the key as returned by {@link #encodeKey(Object)}.
+     * @return {@code true} if the entry's key is equal to the given key.
+     */
+    public static boolean keyEquals(ByteBuffer buffer, int position, byte[] encodedKey) {
+        int keyPosition = position + Long.BYTES;
+        if (keyPosition + encodedKey.length > buffer.limit()) {
+            return false;
+        }
+        for (int i = 0; i < encodedKey.length; i++) {
+            if (buffer.get(keyPosition + i) != encodedKey[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isCoordinateKey(Object key) {
+        if (!(key instanceof List) || ((List<?>) key).size() != 2) {
+            return false;
+        }
+        List<?> coordinates = (List<?>) key;
+        return coordinates.get(0) instanceof Number && coordinates.get(1) instanceof Number;
+    }
+
+    /**
+     * A decoded cache entry.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Entry {
+        private final Object key;
+        private final Object value;
+        private final long writeTime;
+    }
+}
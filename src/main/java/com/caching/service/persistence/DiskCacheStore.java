@@ -0,0 +1,297 @@
+package com.caching.service.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Append-only, memory-mapped file store for the entries of a single cache.
+ *
+ * <p>The file is mapped once at a fixed capacity. Each record is an {@code int} length followed by an
+ * entry encoded by {@link CacheEntryCodec}; the length is written after the entry, so a record only becomes
+ * visible once it is complete and a zero length marks the end of the log. An in-memory index maps each key
+ * to the position of its latest record.
+ *
+ * <p>When the file is full, a compaction is handed to a background executor and records arriving meanwhile
+ * are skipped, so request threads never wait for the rewrite. The compaction copies the newest live,
+ * unexpired records into a new file until it reaches the target fill level, evicting the oldest ones, and
+ * the new file atomically replaces the old one. Because every compaction leaves at least the space above the
+ * target free, a record that is larger than that space is dropped without compacting.
+ */
+@Slf4j
+public class DiskCacheStore implements Closeable {
+
+    private static final int LENGTH_BYTES = Integer.BYTES;
+
+    private final Path path;
+    private final int capacity;
+
+    /**
+     * Number of bytes a compaction fills the new file up to at most.
+     */
+    private final int targetBytes;
+
+    /**
+     * Executor running compactions off the request path.
+     */
+    private final Executor compactionExecutor;
+
+    /**
+     * Mapped file, index and channel, swapped together on compaction.
+     */
+    private volatile Segment segment;
+
+    /**
+     * Position at which the next record is appended. Guarded by {@code this}.
+     */
+    private int writePosition;
+
+    /**
+     * Whether a compaction is pending or running. Guarded by {@code this}.
+     */
+    private boolean compacting;
+
+    /**
+     * Whether the store has been closed. Guarded by {@code this}.
+     */
+    private boolean closed;
+
+    /**
+     * Opens or creates the store at the given path and rebuilds its index from the records on disk.
+     *
+     * @param path               the file backing the store.
+     * @param capacity           the size of the mapped file in bytes.
+     * @param targetFillPercent  the share of the file in percent a compaction fills with the newest records.
+     * @param compactionExecutor the executor running compactions.
+     * @throws IOException if the file cannot be opened or mapped.
+     */
+    public DiskCacheStore(Path path, int capacity, int targetFillPercent, Executor compactionExecutor) throws IOException {
+        this.path = path;
+        this.capacity = capacity;
+        this.targetBytes = (int) ((long) capacity * Math.max(0, Math.min(100, targetFillPercent)) / 100);
+        this.compactionExecutor = compactionExecutor;
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        this.segment = openSegment(path);
+        this.writePosition = load(segment);
+        log.info("Opened disk cache store {} with {} entries ({} of {} bytes used)",
+                path, segment.index.size(), writePosition, capacity);
+    }
+
+    /**
+     * Reads the latest entry stored for the key.
+     *
+     * @param key the cache key.
+     * @return the stored entry, or {@code null} if the key is not stored.
+     */
+    public CacheEntryCodec.Entry get(Object key) {
+        Segment current = segment;
+        Integer position = current.index.get(key);
+        if (position == null) {
+            return null;
+        }
+        return read(current, position);
+    }
+
+    /**
+     * Appends an entry for the key. If the file is full, a background compaction is started and the entry is
+     * skipped, as are all entries arriving while the compaction runs. Entries that would not fit even into a
+     * freshly compacted file are dropped with a warning.
+     *
+     * @param key       the cache key.
+     * @param value     the cache value.
+     * @param writeTime the write timestamp in milliseconds.
+     * @param maxAgeMs  entries older than this are discarded if compaction is needed.
+     * @return {@code true} if the entry was written.
+     */
+    public synchronized boolean put(Object key, Object value, long writeTime, long maxAgeMs) {
+        if (compacting || closed) {
+            return false;
+        }
+        byte[] record = CacheEntryCodec.encode(key, value, writeTime);
+        int length = LENGTH_BYTES + record.length;
+        if (length > capacity - writePosition) {
+            if (length > capacity - targetBytes) {
+                log.warn("Entry for key {} does not fit into disk cache store {}, dropping it", key, path);
+                return false;
+            }
+            compacting = true;
+            compactionExecutor.execute(() -> compact(maxAgeMs));
+            if (compacting || length > capacity - writePosition) {
+                return false;
+            }
+        }
+        Segment current = segment;
+        ByteBuffer buffer = current.buffer.duplicate();
+        buffer.position(writePosition + LENGTH_BYTES);
+        buffer.put(record);
+        buffer.putInt(writePosition, record.length);
+        current.index.put(key, writePosition);
+        writePosition += length;
+        return true;
+    }
+
+    /**
+     * Returns the most recently written entries, oldest first.
+     *
+     * @param limit the maximum number of entries to return.
+     * @return up to {@code limit} of the most recently written entries.
+     */
+    public List<CacheEntryCodec.Entry> recentEntries(int limit) {
+        Segment current = segment;
+        List<Integer> positions = new ArrayList<>(current.index.values());
+        positions.sort(Comparator.naturalOrder());
+        List<CacheEntryCodec.Entry> entries = new ArrayList<>(Math.min(limit, positions.size()));
+        for (int i = Math.max(0, positions.size() - limit); i < positions.size(); i++) {
+            entries.add(read(current, positions.get(i)));
+        }
+        return entries;
+    }
+
+    /**
+     * Flushes the mapped file to disk and closes it.
+     *
+     * @throws IOException if the channel cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        segment.buffer.force();
+        segment.channel.close();
+    }
+
+    /**
+     * Rewrites the newest live, unexpired records into a new file, up to the target fill level, and swaps it
+     * in. Runs on the compaction executor while puts are skipped, so the index of the current segment does
+     * not change underneath it.
+     */
+    private void compact(long maxAgeMs) {
+        Segment current = segment;
+        Path compactedPath = path.resolveSibling(path.getFileName() + ".compact");
+        long oldestAllowed = System.currentTimeMillis() - maxAgeMs;
+        try {
+            List<Map.Entry<Object, Integer>> live = new ArrayList<>(current.index.entrySet());
+            live.sort(Map.Entry.<Object, Integer>comparingByValue().reversed());
+            List<Map.Entry<Object, Integer>> kept = new ArrayList<>();
+            int keptBytes = 0;
+            for (Map.Entry<Object, Integer> entry : live) {
+                int recordBytes = LENGTH_BYTES + current.buffer.getInt(entry.getValue());
+                if (keptBytes + recordBytes > targetBytes) {
+                    break;
+                }
+                if (current.buffer.getLong(entry.getValue() + LENGTH_BYTES) >= oldestAllowed) {
+                    kept.add(entry);
+                    keptBytes += recordBytes;
+                }
+            }
+
+            Files.deleteIfExists(compactedPath);
+            Segment compacted = openSegment(compactedPath);
+            int position = 0;
+            for (int i = kept.size() - 1; i >= 0; i--) {
+                Map.Entry<Object, Integer> entry = kept.get(i);
+                ByteBuffer source = current.buffer.duplicate();
+                int length = source.getInt(entry.getValue());
+                source.position(entry.getValue() + LENGTH_BYTES).limit(entry.getValue() + LENGTH_BYTES + length);
+                ByteBuffer target = compacted.buffer.duplicate();
+                target.position(position + LENGTH_BYTES);
+                target.put(source);
+                target.putInt(position, length);
+                compacted.index.put(entry.getKey(), position);
+                position += LENGTH_BYTES + length;
+            }
+            compacted.buffer.force();
+            compacted.channel.close();
+
+            synchronized (this) {
+                if (closed) {
+                    Files.deleteIfExists(compactedPath);
+                    return;
+                }
+                current.channel.close();
+                Files.move(compactedPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                Segment reopened = openSegment(path);
+                reopened.index.putAll(compacted.index);
+                segment = reopened;
+                log.info("Compacted disk cache store {} from {} to {} bytes, keeping {} of {} entries",
+                        path, writePosition, position, kept.size(), live.size());
+                writePosition = position;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to compact disk cache store {}: {}", path, e.getMessage());
+        } finally {
+            synchronized (this) {
+                compacting = false;
+            }
+        }
+    }
+
+    /**
+     * Scans the records of a freshly opened segment into its index.
+     *
+     * @return the position after the last complete record.
+     */
+    private int load(Segment target) {
+        ByteBuffer buffer = target.buffer.duplicate();
+        int position = 0;
+        while (position + LENGTH_BYTES <= capacity) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > capacity - position - LENGTH_BYTES) {
+                break;
+            }
+            try {
+                buffer.limit(position + LENGTH_BYTES + length).position(position + LENGTH_BYTES);
+                target.index.put(CacheEntryCodec.decode(buffer).getKey(), position);
+            } catch (RuntimeException e) {
+                log.warn("Stopping load of disk cache store {} at corrupt record at position {}", path, position);
+                break;
+            } finally {
+                buffer.limit(capacity);
+            }
+            position += LENGTH_BYTES + length;
+        }
+        return position;
+    }
+
+    private CacheEntryCodec.Entry read(Segment source, int position) {
+        ByteBuffer buffer = source.buffer.duplicate();
+        int length = buffer.getInt(position);
+        buffer.limit(position + LENGTH_BYTES + length).position(position + LENGTH_BYTES);
+        return CacheEntryCodec.decode(buffer);
+    }
+
+    private Segment openSegment(Path segmentPath) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        return new Segment(channel, buffer, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * A mapped file together with the index of the records it holds.
+     */
+    private static final class Segment {
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final Map<Object, Integer> index;
+
+        private Segment(FileChannel channel, MappedByteBuffer buffer, Map<Object, Integer> index) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/**
+ * Second cache tier persisting geocoding and reverse geocoding results to local disk.
+ *
+ * <p>Every result fetched from the upstream service is appended to a {@link DiskCacheStore} per cache. On an
+ * in-memory cache miss, the disk tier is consulted before the upstream service, and on application startup
+ * the most recently written entries are loaded back into the in-memory caches, so a redeploy starts warm
+ * instead of sending every first request upstream. Full stores are compacted on a single background thread
+ * shared by all stores.
+ */
+package com.caching.service.persistence;
+
+import com.caching.service.cacherefresh.CacheRefreshService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class PersistentCacheTier {
+
+    /**
+     * Names of the caches backed by the disk tier.
+     */
+    private static final List<String> PERSISTED_CACHES = List.of("geocoding", "reverse-geocoding");
+
+    /**
+     * Spring's cache manager, warmed from disk at startup.
+     */
+    private final CacheManager cacheManager;
+
+    /**
+     * Service recording write times of warmed entries for refresh-ahead.
+     */
+    private final CacheRefreshService cacheRefreshService;
+
+    /**
+     * Open disk stores keyed by cache name.
+     */
+    private final Map<String, DiskCacheStore> stores = new ConcurrentHashMap<>();
+
+    /**
+     * Whether the disk tier is enabled, retrieved from application properties.
+     */
+    @Value("${persistence.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Directory holding the store files, retrieved from application properties.
+     */
+    @Value("${persistence.directory:cache-store}")
+    private String directory;
+
+    /**
+     * Size in bytes of each mapped store file, retrieved from application properties.
+     */
+    @Value("${persistence.max-file-bytes:67108864}")
+    private int maxFileBytes;
+
+    /**
+     * Share of a store file in percent that a compaction fills with the newest entries, retrieved from
+     * application properties.
+     */
+    @Value("${persistence.compaction-target-percent:50}")
+    private int compactionTargetPercent;
+
+    /**
+     * Maximum age in milliseconds of a persisted entry that may still be served, retrieved from
+     * application properties.
+     */
+    @Value("${persistence.max-age-ms:86400000}")
+    private long maxAgeMs;
+
+    /**
+     * Maximum number of most recently written entries loaded into each in-memory cache at startup,
+     * retrieved from application properties.
+     */
+    @Value("${persistence.warm-entries:10000}")
+    private int warmEntries;
+
+    /**
+     * Thread compacting full stores off the request path.
+     */
+    private ExecutorService compactionExecutor;
+
+    /**
+     * Constructs a new {@code PersistentCacheTier}.
+     *
+     * @param cacheManager        the cache manager warmed from disk at startup.
+     * @param cacheRefreshService the service recording write times of warmed entries.
+     */
+    public PersistentCacheTier(CacheManager cacheManager, CacheRefreshService cacheRefreshService) {
+        this.cacheManager = cacheManager;
+        this.cacheRefreshService = cacheRefreshService;
+    }
+
+    /**
+     * Opens the disk store of every persisted cache. A store that cannot be opened is skipped, leaving
+     * that cache without a disk tier.
+     */
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        compactionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "disk-cache-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (String cacheName : PERSISTED_CACHES) {
+            Path path = Paths.get(directory, cacheName + ".dat");
+            try {
+                stores.put(cacheName, new DiskCacheStore(path, maxFileBytes, compactionTargetPercent, compactionExecutor));
+            } catch (IOException e) {
+                log.error("Failed to open disk cache store {}: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Waits briefly for a running compaction, then flushes and closes all disk stores.
+     */
+    @PreDestroy
+    public void close() {
+        if (compactionExecutor != null) {
+            compactionExecutor.shutdown();
+            try {
+                compactionExecutor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        stores.forEach((cacheName, store) -> {
+            try {
+                store.close();
+            } catch (IOException e) {
+                log.error("Failed to close disk cache store for {}: {}", cacheName, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Loads the most recently written, unexpired entries of every disk store into the in-memory caches.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmCaches() {
+        long oldestAllowed = System.currentTimeMillis() - maxAgeMs;
+        stores.forEach((cacheName, store) -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache == null) {
+                return;
+            }
+            int warmed = 0;
+            for (CacheEntryCodec.Entry entry : store.recentEntries(warmEntries)) {
+                if (entry.getWriteTime() >= oldestAllowed) {
+                    cache.put(entry.getKey(), entry.getValue());
+                    cacheRefreshService.recordWrite(cacheName, entry.getKey());
+                    warmed++;
+                }
+            }
+            log.info("Warmed cache {} with {} entries from disk", cacheName, warmed);
+        });
+    }
+
+    /**
+     * Returns the persisted value for the key if it is younger than the maximum age.
+     *
+     * @param cacheName the name of the cache.
+     * @param key       the cache key.
+     * @param type      the expected value type.
+     * @param <T>       the value type.
+     * @return the persisted value, or {@code null} if none is stored, it is too old, or it has another type.
+     */
+    public <T> T get(String cacheName, Object key, Class<T> type) {
+        return read(cacheName, key, type, maxAgeMs);
+    }
+
+    /**
+     * Returns the persisted value for the key regardless of its age, for use when the upstream service is
+     * unavailable and a stale result is better than none.
+     *
+     * @param cacheName the name of the cache.
+     * @param key       the cache key.
+     * @param type      the expected value type.
+     * @param <T>       the value type.
+     * @return the persisted value, or {@code null} if none is stored or it has another type.
+     */
+    public <T> T getStale(String cacheName, Object key, Class<T> type) {
+        return read(cacheName, key, type, Long.MAX_VALUE);
+    }
+
+    /**
+     * Reads a persisted value no older than {@code maxAge} milliseconds.
+     */
+    private <T> T read(String cacheName, Object key, Class<T> type, long maxAge) {
+        DiskCacheStore store = stores.get(cacheName);
+        if (store == null) {
+            return null;
+        }
+        try {
+            CacheEntryCodec.Entry entry = store.get(key);
+            if (entry == null || System.currentTimeMillis() - entry.getWriteTime() > maxAge
+                    || !type.isInstance(entry.getValue())) {
+                return null;
+            }
+            log.info("Disk cache hit in {} for key: {}", cacheName, key);
+            return type.cast(entry.getValue());
+        } catch (RuntimeException e) {
+            log.error("Failed to read disk cache entry in {} for key {}: {}", cacheName, key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Persists a value fetched from the upstream service. Failures are logged and otherwise ignored, since
+     * the disk tier is an optimization.
+     *
+     * @param cacheName the name of the cache.
+     * @param key       the cache key.
+     * @param value     the value to persist.
+     */
+    public void put(String cacheName, Object key, Object value) {
+        DiskCacheStore store = stores.get(cacheName);
+        if (store == null || !CacheEntryCodec.supports(key, value)) {
+            return;
+        }
+        try {
+            store.put(key, value, System.currentTimeMillis(), maxAgeMs);
+        } catch (RuntimeException e) {
+            log.error("Failed to persist disk cache entry in {} for key {}: {}", cacheName, key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.caching.service.provider;
+
+import com.caching.model.Address;
+import com.caching.model.Datum;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Streaming decoder that extracts only the first result of a provider response.
+ *
+ * <p>The rest of the application only ever reads the first result, so there is no point in binding every
+ * candidate of a forward geocoding response. The decoder walks the token stream, reads the coordinate and label
+ * fields of the first result, skips everything else without materialising it, and stops as soon as that result
+ * has been read. The resulting {@link Address} holds at most one {@link Datum}.
+ */
+public final class FirstResultDecoder {
+
+    /**
+     * Names of the latitude, longitude and label fields of a result object.
+     */
+    private final String latitudeField;
+    private final String longitudeField;
+    private final String labelField;
+
+    /**
+     * Constructs a new {@code FirstResultDecoder}.
+     *
+     * @param latitudeField  the name of the latitude field.
+     * @param longitudeField the name of the longitude field.
+     * @param labelField     the name of the label field.
+     */
+    public FirstResultDecoder(String latitudeField, String longitudeField, String labelField) {
+        this.latitudeField = latitudeField;
+        this.longitudeField = longitudeField;
+        this.labelField = labelField;
+    }
+
+    /**
+     * Reads the first result of an array held by a field of the root object, such as {@code {"data": [...]}}.
+     *
+     * @param parser     the parser, positioned before the root token.
+     * @param arrayField the name of the field holding the results.
+     * @return the first result, or no result if the field is missing or empty.
+     * @throws IOException if the body cannot be read or is malformed.
+     */
+    public Address firstOfArrayField(JsonParser parser, String arrayField) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return empty();
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (arrayField.equals(field) && value == JsonToken.START_ARRAY) {
+                return firstElement(parser);
+            }
+            parser.skipChildren();
+        }
+        return empty();
+    }
+
+    /**
+     * Reads the first result of a root array, such as {@code [{...}, ...]}.
+     *
+     * @param parser the parser, positioned before the root token.
+     * @return the first result, or no result if the array is empty.
+     * @throws IOException if the body cannot be read or is malformed.
+     */
+    public Address firstOfArray(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            return empty();
+        }
+        return firstElement(parser);
+    }
+
+    /**
+     * Reads a root object as the single result, unless it carries an error field.
+     *
+     * @param parser     the parser, positioned before the root token.
+     * @param errorField the name of the field signalling that nothing was found.
+     * @return the result, or no result if the object carries the error field.
+     * @throws IOException if the body cannot be read or is malformed.
+     */
+    public Address singleObject(JsonParser parser, String errorField) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return empty();
+        }
+        Datum datum = readObject(parser, errorField);
+        return datum == null ? empty() : new Address(Collections.singletonList(datum));
+    }
+
+    /**
+     * Reads the first element of the array the parser is positioned on.
+     */
+    private Address firstElement(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return empty();
+        }
+        Datum datum = readObject(parser, null);
+        return datum == null ? empty() : new Address(Collections.singletonList(datum));
+    }
+
+    /**
+     * Reads the result object the parser is positioned on, leaving the parser on its closing token.
+     *
+     * @return the result, or {@code null} if the object carries the error field.
+     */
+    private Datum readObject(JsonParser parser, String errorField) throws IOException {
+        double latitude = 0d;
+        double longitude = 0d;
+        String label = null;
+        boolean error = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (latitudeField.equals(field)) {
+                latitude = parser.getValueAsDouble();
+            } else if (longitudeField.equals(field)) {
+                longitude = parser.getValueAsDouble();
+            } else if (labelField.equals(field)) {
+                label = parser.getValueAsString();
+            } else {
+                error |= field.equals(errorField);
+                parser.skipChildren();
+            }
+        }
+        return error ? null : new Datum(latitude, longitude, label);
+    }
+
+    private static Address empty() {
+        return new Address(Collections.emptyList());
+    }
+}
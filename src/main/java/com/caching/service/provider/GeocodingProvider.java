@@ -0,0 +1,67 @@
+package com.caching.service.provider;
+
+import com.caching.model.Address;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * An external geocoding backend.
+ *
+ * <p>A provider knows how to address its API and how to decode its response format into the {@link Address} and
+ * {@link com.caching.model.Datum} model used throughout the application. Responses are decoded from a streaming
+ * parser, and only the first result is read. Rate limiting, circuit breaking and the
+ * choice between providers are handled by the {@link GeocodingProviderRouter}.
+ */
+public interface GeocodingProvider {
+
+    /**
+     * Returns the unique name of the provider, used in logs and configuration keys.
+     *
+     * @return the provider name.
+     */
+    String getName();
+
+    /**
+     * Returns whether the provider is configured and may receive traffic.
+     *
+     * @return {@code true} if the provider is enabled.
+     */
+    boolean isEnabled();
+
+    /**
+     * Builds the geocoding request URL for an address.
+     *
+     * @param address the address to geocode.
+     * @return the fully encoded request URL.
+     */
+    URI geocodingURL(String address);
+
+    /**
+     * Builds the reverse geocoding request URL for a pair of coordinates.
+     *
+     * @param latitude  the latitude for reverse geocoding.
+     * @param longitude the longitude for reverse geocoding.
+     * @return the fully encoded request URL.
+     */
+    URI reverseGeocodingURL(Double latitude, Double longitude);
+
+    /**
+     * Decodes the first result of a geocoding response.
+     *
+     * @param parser the parser over the response body, positioned before the first token.
+     * @return the first result, or an empty data list if the provider found nothing.
+     * @throws IOException if the body cannot be read or is malformed.
+     */
+    Address readGeocodingResponse(JsonParser parser) throws IOException;
+
+    /**
+     * Decodes the first result of a reverse geocoding response.
+     *
+     * @param parser the parser over the response body, positioned before the first token.
+     * @return the first result, or an empty data list if the provider found nothing.
+     * @throws IOException if the body cannot be read or is malformed.
+     */
+    Address readReverseGeocodingResponse(JsonParser parser) throws IOException;
+}
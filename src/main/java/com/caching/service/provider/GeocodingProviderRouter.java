@@ -0,0 +1,318 @@
+/**
+ * Routes upstream calls across the enabled {@link GeocodingProvider}s by observed latency and error rate.
+ *
+ * <p>Every provider gets its own {@link UpstreamRateLimiter} and {@link UpstreamCircuitBreaker}, so one provider's
+ * quota or brownout does not affect the others. The rate can be set per provider with
+ * {@code providers.<name>.permits-per-second} and {@code providers.<name>.burst}, falling back to the shared
+ * {@code rate-limiter.*} settings.
+ *
+ * <p>For each call the providers are ranked by their expected cost: an exponentially weighted moving average of
+ * their latency plus a fixed penalty weighted by their recent error rate, with providers whose circuit is open
+ * ranked last. The call goes to the
+ * best provider and fails over to the next one on a transient failure, an open circuit or an exhausted rate
+ * limit. Errors that describe the request itself, such as an address without results, are returned as is.
+ * A small share of calls, {@code routing.exploration-percent}, goes to the runner-up first so that the
+ * statistics of a provider that was once slow keep being refreshed. Latency is measured from the moment the
+ * provider's rate limiter grants a token, so time spent queued for the limit does not make a provider look slow.
+ */
+package com.caching.service.provider;
+
+import com.caching.exception.RateLimitExceededException;
+import com.caching.exception.UpstreamUnavailableException;
+import com.caching.service.resilience.UpstreamCallListener;
+import com.caching.service.resilience.UpstreamCircuitBreaker;
+import com.caching.service.resilience.UpstreamErrors;
+import com.caching.service.resilience.UpstreamRateLimiter;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class GeocodingProviderRouter {
+
+    /**
+     * Weight of the newest observation in the moving averages.
+     */
+    private static final double EWMA_ALPHA = 0.2d;
+
+    /**
+     * Cost in milliseconds charged for a failed call when ranking providers, so that a provider failing fast
+     * does not look faster than a healthy one.
+     */
+    private static final double FAILURE_PENALTY_MS = 1000d;
+
+    /**
+     * All provider implementations, in their configured order.
+     */
+    private final List<GeocodingProvider> providers;
+
+    private final ObjectProvider<UpstreamRateLimiter> rateLimiterFactory;
+    private final ObjectProvider<UpstreamCircuitBreaker> circuitBreakerFactory;
+    private final Environment environment;
+
+    /**
+     * Share of calls in percent routed to the runner-up first, retrieved from application properties.
+     */
+    @Value("${routing.exploration-percent:5}")
+    private double explorationPercent;
+
+    /**
+     * Default sustained calls per second for each provider, retrieved from application properties.
+     */
+    @Value("${rate-limiter.permits-per-second:10}")
+    private double defaultPermitsPerSecond;
+
+    /**
+     * Default burst for each provider, retrieved from application properties.
+     */
+    @Value("${rate-limiter.burst:20}")
+    private double defaultBurst;
+
+    /**
+     * Routing state of the enabled providers, in their configured order.
+     */
+    private List<ProviderRoute> routes;
+
+    /**
+     * Constructs a new {@code GeocodingProviderRouter}.
+     *
+     * @param providers             all provider implementations, in their configured order.
+     * @param rateLimiterFactory    factory for per-provider rate limiters.
+     * @param circuitBreakerFactory factory for per-provider circuit breakers.
+     * @param environment           the environment holding per-provider settings.
+     */
+    public GeocodingProviderRouter(List<GeocodingProvider> providers,
+                                   ObjectProvider<UpstreamRateLimiter> rateLimiterFactory,
+                                   ObjectProvider<UpstreamCircuitBreaker> circuitBreakerFactory,
+                                   Environment environment) {
+        this.providers = providers;
+        this.rateLimiterFactory = rateLimiterFactory;
+        this.circuitBreakerFactory = circuitBreakerFactory;
+        this.environment = environment;
+    }
+
+    /**
+     * Creates the rate limiter and circuit breaker of every enabled provider.
+     */
+    @PostConstruct
+    public void init() {
+        routes = new ArrayList<>();
+        for (GeocodingProvider provider : providers) {
+            if (!provider.isEnabled()) {
+                continue;
+            }
+            String name = provider.getName();
+            double permitsPerSecond = environment.getProperty("providers." + name + ".permits-per-second",
+                    Double.class, defaultPermitsPerSecond);
+            double burst = environment.getProperty("providers." + name + ".burst", Double.class, defaultBurst);
+            routes.add(new ProviderRoute(provider, rateLimiterFactory.getObject(name, permitsPerSecond, burst),
+                    circuitBreakerFactory.getObject(name)));
+        }
+        if (routes.isEmpty()) {
+            throw new IllegalStateException("No geocoding provider is enabled");
+        }
+        log.info("Routing geocoding calls across providers: {}",
+                routes.stream().map(route -> route.getProvider().getName()).collect(Collectors.toList()));
+    }
+
+    /**
+     * Runs a blocking call against the best available provider, failing over to the others.
+     *
+     * @param call     the call to run against a provider.
+     * @param listener notified when a request is sent to a provider and when one succeeds.
+     * @param <T>      the result type.
+     * @return the result of the first provider that answered.
+     */
+    public <T> T execute(Function<GeocodingProvider, T> call, UpstreamCallListener listener) {
+        RuntimeException lastError = null;
+        for (ProviderRoute route : rankedRoutes()) {
+            CallTimer timer = new CallTimer(listener);
+            try {
+                T result = route.getCircuitBreaker().execute(route.getRateLimiter()::acquire, () -> {
+                    timer.start();
+                    return call.apply(route.getProvider());
+                });
+                route.recordSuccess(timer.succeeded());
+                return result;
+            } catch (RuntimeException e) {
+                if (!canFailOver(e)) {
+                    if (timer.isStarted()) {
+                        route.recordSuccess(timer.elapsedNanos());
+                    }
+                    throw e;
+                }
+                route.recordFailure(e);
+                lastError = e;
+                log.warn("Geocoding provider {} failed ({}), failing over", route.getProvider().getName(), e.getMessage());
+            }
+        }
+        throw lastError;
+    }
+
+    /**
+     * Asynchronous variant of {@link #execute(Function, UpstreamCallListener)}.
+     *
+     * @param call     the call to start against a provider.
+     * @param listener notified when a request is sent to a provider and when one succeeds.
+     * @param <T>      the result type.
+     * @return a future completed with the result of the first provider that answered.
+     */
+    public <T> CompletableFuture<T> executeAsync(Function<GeocodingProvider, CompletableFuture<T>> call,
+                                                 UpstreamCallListener listener) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        tryRoute(rankedRoutes(), 0, call, listener, result);
+        return result;
+    }
+
+    /**
+     * Starts the call against the route at {@code index} and moves on to the next route if it fails over.
+     */
+    private <T> void tryRoute(List<ProviderRoute> ranked, int index, Function<GeocodingProvider, CompletableFuture<T>> call,
+                              UpstreamCallListener listener, CompletableFuture<T> result) {
+        ProviderRoute route = ranked.get(index);
+        CallTimer timer = new CallTimer(listener);
+        route.getCircuitBreaker().executeAsync(route.getRateLimiter()::acquireAsync, () -> {
+                    timer.start();
+                    return call.apply(route.getProvider());
+                })
+                .whenComplete((value, error) -> {
+                    Throwable cause = error == null ? null : UpstreamErrors.unwrap(error);
+                    if (cause == null || !canFailOver(cause)) {
+                        if (cause == null) {
+                            route.recordSuccess(timer.succeeded());
+                            result.complete(value);
+                        } else {
+                            if (timer.isStarted()) {
+                                route.recordSuccess(timer.elapsedNanos());
+                            }
+                            result.completeExceptionally(cause);
+                        }
+                        return;
+                    }
+                    route.recordFailure(cause);
+                    if (index + 1 >= ranked.size()) {
+                        result.completeExceptionally(cause);
+                        return;
+                    }
+                    log.warn("Geocoding provider {} failed ({}), failing over", route.getProvider().getName(), cause.getMessage());
+                    tryRoute(ranked, index + 1, call, listener, result);
+                });
+    }
+
+    /**
+     * Returns the enabled routes from best to worst.
+     */
+    private List<ProviderRoute> rankedRoutes() {
+        if (routes.size() == 1) {
+            return routes;
+        }
+        List<ProviderRoute> ranked = new ArrayList<>(routes);
+        ranked.sort(Comparator.comparing((ProviderRoute route) -> route.getCircuitBreaker().getState() == UpstreamCircuitBreaker.State.OPEN)
+                .thenComparingDouble(ProviderRoute::score));
+        if (ThreadLocalRandom.current().nextDouble(100d) < explorationPercent) {
+            Collections.swap(ranked, 0, 1);
+        }
+        return ranked;
+    }
+
+    /**
+     * Returns whether an error is the provider's fault, so another provider may succeed.
+     */
+    private static boolean canFailOver(Throwable error) {
+        return UpstreamErrors.isTransient(error)
+                || error instanceof UpstreamUnavailableException
+                || error instanceof RateLimitExceededException;
+    }
+
+    /**
+     * Measures one call from the moment it is sent to the provider, after the rate limiter and circuit breaker
+     * admitted it, and reports its progress to the caller's listener. Started and read on different threads in
+     * the asynchronous case.
+     */
+    private static final class CallTimer {
+
+        private final UpstreamCallListener listener;
+        private volatile boolean started;
+        private volatile long startNanos;
+
+        CallTimer(UpstreamCallListener listener) {
+            this.listener = listener;
+        }
+
+        void start() {
+            startNanos = System.nanoTime();
+            started = true;
+            listener.onSent();
+        }
+
+        /**
+         * Reports a successful answer and returns its latency.
+         */
+        long succeeded() {
+            long latencyNanos = elapsedNanos();
+            listener.onSucceeded(latencyNanos);
+            return latencyNanos;
+        }
+
+        boolean isStarted() {
+            return started;
+        }
+
+        long elapsedNanos() {
+            return System.nanoTime() - startNanos;
+        }
+    }
+
+    /**
+     * A provider with its resilience components and observed health.
+     */
+    @Getter
+    private static class ProviderRoute {
+
+        private final GeocodingProvider provider;
+        private final UpstreamRateLimiter rateLimiter;
+        private final UpstreamCircuitBreaker circuitBreaker;
+
+        /**
+         * Moving averages of the latency in milliseconds and of the error rate. Guarded by {@code this}.
+         */
+        private double latencyMs;
+        private double errorRate;
+
+        ProviderRoute(GeocodingProvider provider, UpstreamRateLimiter rateLimiter, UpstreamCircuitBreaker circuitBreaker) {
+            this.provider = provider;
+            this.rateLimiter = rateLimiter;
+            this.circuitBreaker = circuitBreaker;
+        }
+
+        synchronized void recordSuccess(long latencyNanos) {
+            double observedMs = latencyNanos / 1_000_000d;
+            latencyMs = latencyMs == 0d ? observedMs : latencyMs + EWMA_ALPHA * (observedMs - latencyMs);
+            errorRate -= EWMA_ALPHA * errorRate;
+        }
+
+        synchronized void recordFailure(Throwable error) {
+            if (!(error instanceof UpstreamUnavailableException) && !(error instanceof RateLimitExceededException)) {
+                errorRate += EWMA_ALPHA * (1d - errorRate);
+            }
+        }
+
+        synchronized double score() {
+            return latencyMs + FAILURE_PENALTY_MS * errorRate;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.caching.service.provider;
+
+import com.caching.model.Address;
+import com.fasterxml.jackson.core.JsonParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * The OpenStreetMap Nominatim API, a secondary provider.
+ *
+ * <p>Forward lookups return a JSON array of places and reverse lookups a single place object, or an object with
+ * an {@code error} field when nothing is found. Coordinates are returned as strings in {@code lat} and
+ * {@code lon}, and the formatted address in {@code display_name}.
+ */
+@Component
+@Order(2)
+public class NominatimProvider implements GeocodingProvider {
+
+    /**
+     * Decoder for Nominatim place objects.
+     */
+    private static final FirstResultDecoder DECODER = new FirstResultDecoder("lat", "lon", "display_name");
+
+    /**
+     * Whether the provider receives traffic, retrieved from application properties.
+     */
+    @Value("${providers.nominatim.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * URL template for geocoding, with an ADDRESS placeholder, retrieved from application properties.
+     */
+    @Value("${providers.nominatim.geocoding-url:https://nominatim.openstreetmap.org/search?q=ADDRESS&format=jsonv2&limit=1}")
+    private String geocodingURL;
+
+    /**
+     * URL template for reverse geocoding, with LATITUDE and LONGITUDE placeholders, retrieved from application
+     * properties.
+     */
+    @Value("${providers.nominatim.reverse-geocoding-url:https://nominatim.openstreetmap.org/reverse?lat=LATITUDE&lon=LONGITUDE&format=jsonv2}")
+    private String reverseGeocodingURL;
+
+    /**
+     * Compiled geocoding and reverse geocoding URL templates.
+     */
+    private UrlTemplate geocodingTemplate;
+    private UrlTemplate reverseGeocodingTemplate;
+
+    /**
+     * Compiles the configured URL templates.
+     */
+    @PostConstruct
+    public void compileTemplates() {
+        geocodingTemplate = UrlTemplate.compile(geocodingURL, null);
+        reverseGeocodingTemplate = UrlTemplate.compile(reverseGeocodingURL, null);
+    }
+
+    @Override
+    public String getName() {
+        return "nominatim";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public URI geocodingURL(String address) {
+        return geocodingTemplate.expand(address);
+    }
+
+    @Override
+    public URI reverseGeocodingURL(Double latitude, Double longitude) {
+        return reverseGeocodingTemplate.expand(latitude, longitude);
+    }
+
+    @Override
+    public Address readGeocodingResponse(JsonParser parser) throws IOException {
+        return DECODER.firstOfArray(parser);
+    }
+
+    @Override
+    public Address readReverseGeocodingResponse(JsonParser parser) throws IOException {
+        return DECODER.singleObject(parser, "error");
+    }
+}
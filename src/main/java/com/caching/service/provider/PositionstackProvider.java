@@ -0,0 +1,98 @@
+package com.caching.service.provider;
+
+import com.caching.model.Address;
+import com.fasterxml.jackson.core.JsonParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * The positionstack geocoding API, the primary provider.
+ *
+ * <p>Responses wrap their results in a {@code data} array whose items already carry {@code latitude},
+ * {@code longitude} and {@code label} fields.
+ */
+@Component
+@Order(1)
+public class PositionstackProvider implements GeocodingProvider {
+
+    /**
+     * Decoder for the items of the {@code data} array.
+     */
+    private static final FirstResultDecoder DECODER = new FirstResultDecoder("latitude", "longitude", "label");
+
+    /**
+     * API access key for authentication, retrieved from application properties.
+     */
+    @Value("${api-key}")
+    private String accessKey;
+
+    /**
+     * Base URL for the geocoding API, retrieved from application properties.
+     */
+    @Value("${geocoding-url}")
+    private String geocodingURL;
+
+    /**
+     * Base URL for the reverse geocoding API, retrieved from application properties.
+     */
+    @Value("${reverse-geocoding-url}")
+    private String reverseGeocodingURL;
+
+    /**
+     * Whether the provider receives traffic, retrieved from application properties.
+     */
+    @Value("${providers.positionstack.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Compiled geocoding and reverse geocoding URL templates.
+     */
+    private UrlTemplate geocodingTemplate;
+    private UrlTemplate reverseGeocodingTemplate;
+
+    /**
+     * Compiles the configured URL templates.
+     *
+     * <p>"delhi" is treated as the address placeholder because in the TestGeocoding URL it is hardcoded.
+     */
+    @PostConstruct
+    public void compileTemplates() {
+        geocodingTemplate = UrlTemplate.compile(geocodingURL, accessKey, "delhi");
+        reverseGeocodingTemplate = UrlTemplate.compile(reverseGeocodingURL, accessKey);
+    }
+
+    @Override
+    public String getName() {
+        return "positionstack";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public URI geocodingURL(String address) {
+        return geocodingTemplate.expand(address);
+    }
+
+    @Override
+    public URI reverseGeocodingURL(Double latitude, Double longitude) {
+        return reverseGeocodingTemplate.expand(latitude, longitude);
+    }
+
+    @Override
+    public Address readGeocodingResponse(JsonParser parser) throws IOException {
+        return DECODER.firstOfArrayField(parser, "data");
+    }
+
+    @Override
+    public Address readReverseGeocodingResponse(JsonParser parser) throws IOException {
+        return DECODER.firstOfArrayField(parser, "data");
+    }
+}
@@ -0,0 +1,22 @@
+package com.caching.service.provider;
+
+import com.caching.model.Address;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * Decodes a provider response from a streaming parser positioned before the first token.
+ */
+@FunctionalInterface
+public interface ResponseReader {
+
+    /**
+     * Reads the response.
+     *
+     * @param parser the parser over the response body.
+     * @return the decoded results, with an empty data list if the provider found nothing.
+     * @throws IOException if the body cannot be read or is malformed.
+     */
+    Address read(JsonParser parser) throws IOException;
+}
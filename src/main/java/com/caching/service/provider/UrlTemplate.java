@@ -0,0 +1,180 @@
+package com.caching.service.provider;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A request URL template parsed once into literal segments and placeholders.
+ *
+ * <p>Expanding the template writes the literals and the percent-encoded values into a per-thread buffer in a
+ * single pass, instead of running one {@link String#replace} per placeholder over the whole template. Values are
+ * encoded as RFC 3986 unreserved characters, so the resulting {@link URI} is final and must not be encoded again.
+ *
+ * <p>Recognised placeholders are {@code ADDRESS}, {@code LATITUDE} and {@code LONGITUDE}, expanded per request,
+ * and {@code ACCESS_KEY_PLACEHOLDER} and {@code API_KEY_PLACEHOLDER}, replaced by the access key when the template
+ * is compiled. Additional aliases for {@code ADDRESS} can be given for legacy templates.
+ */
+public final class UrlTemplate {
+
+    /**
+     * Placeholders expanded per request.
+     */
+    private enum Placeholder {
+        ADDRESS, LATITUDE, LONGITUDE
+    }
+
+    private static final String[] ACCESS_KEY_TOKENS = {"ACCESS_KEY_PLACEHOLDER", "API_KEY_PLACEHOLDER"};
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * Buffers above this capacity are not kept for reuse, so one huge address does not stay pinned to a thread.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 4096;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    /**
+     * Literal segments; {@code literals[i]} precedes {@code placeholders[i]}, and the last literal ends the URL.
+     */
+    private final String[] literals;
+    private final Placeholder[] placeholders;
+
+    private UrlTemplate(String[] literals, Placeholder[] placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+    }
+
+    /**
+     * Parses a URL template.
+     *
+     * @param template       the URL template.
+     * @param accessKey      the value of the access key placeholders, or {@code null} to leave them as they are.
+     * @param addressAliases further tokens to treat as the {@code ADDRESS} placeholder.
+     * @return the compiled template.
+     */
+    public static UrlTemplate compile(String template, String accessKey, String... addressAliases) {
+        List<String> literals = new ArrayList<>();
+        List<Placeholder> placeholders = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        outer:
+        while (i < template.length()) {
+            if (accessKey != null) {
+                for (String token : ACCESS_KEY_TOKENS) {
+                    if (template.startsWith(token, i)) {
+                        appendEncoded(literal, accessKey);
+                        i += token.length();
+                        continue outer;
+                    }
+                }
+            }
+            for (Placeholder placeholder : Placeholder.values()) {
+                if (template.startsWith(placeholder.name(), i)) {
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                    placeholders.add(placeholder);
+                    i += placeholder.name().length();
+                    continue outer;
+                }
+            }
+            for (String alias : addressAliases) {
+                if (template.startsWith(alias, i)) {
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                    placeholders.add(Placeholder.ADDRESS);
+                    i += alias.length();
+                    continue outer;
+                }
+            }
+            literal.append(template.charAt(i++));
+        }
+        literals.add(literal.toString());
+        return new UrlTemplate(literals.toArray(new String[0]), placeholders.toArray(new Placeholder[0]));
+    }
+
+    /**
+     * Expands a template containing the {@code ADDRESS} placeholder.
+     *
+     * @param address the address.
+     * @return the request URI.
+     */
+    public URI expand(String address) {
+        return expand(address, Double.NaN, Double.NaN);
+    }
+
+    /**
+     * Expands a template containing the {@code LATITUDE} and {@code LONGITUDE} placeholders.
+     *
+     * @param latitude  the latitude.
+     * @param longitude the longitude.
+     * @return the request URI.
+     */
+    public URI expand(double latitude, double longitude) {
+        return expand(null, latitude, longitude);
+    }
+
+    private URI expand(String address, double latitude, double longitude) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        for (int i = 0; i < placeholders.length; i++) {
+            buffer.append(literals[i]);
+            switch (placeholders[i]) {
+                case ADDRESS:
+                    if (address == null) {
+                        throw new IllegalArgumentException("No address given for the ADDRESS placeholder");
+                    }
+                    appendEncoded(buffer, address);
+                    break;
+                case LATITUDE:
+                    buffer.append(latitude);
+                    break;
+                case LONGITUDE:
+                    buffer.append(longitude);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown placeholder: " + placeholders[i]);
+            }
+        }
+        buffer.append(literals[placeholders.length]);
+        URI uri = URI.create(buffer.toString());
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return uri;
+    }
+
+    /**
+     * Appends a value percent-encoded as UTF-8, leaving only RFC 3986 unreserved characters as they are.
+     */
+    private static void appendEncoded(StringBuilder buffer, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '.' || c == '_' || c == '~') {
+                buffer.append(c);
+            } else if (c < 0x80) {
+                appendByte(buffer, c);
+            } else {
+                int codePoint = value.codePointAt(i);
+                if (codePoint < 0x800) {
+                    appendByte(buffer, 0xC0 | (codePoint >> 6));
+                } else if (codePoint < 0x10000) {
+                    appendByte(buffer, 0xE0 | (codePoint >> 12));
+                    appendByte(buffer, 0x80 | ((codePoint >> 6) & 0x3F));
+                } else {
+                    appendByte(buffer, 0xF0 | (codePoint >> 18));
+                    appendByte(buffer, 0x80 | ((codePoint >> 12) & 0x3F));
+                    appendByte(buffer, 0x80 | ((codePoint >> 6) & 0x3F));
+                }
+                appendByte(buffer, 0x80 | (codePoint & 0x3F));
+                i += Character.charCount(codePoint) - 1;
+            }
+        }
+    }
+
+    private static void appendByte(StringBuilder buffer, int b) {
+        buffer.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+    }
+}
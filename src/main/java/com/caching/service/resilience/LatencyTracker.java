@@ -0,0 +1,81 @@
+package com.caching.service.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Sliding sample of recent call latencies with a cached percentile.
+ *
+ * <p>Latencies are kept in a ring buffer of fixed size. Sorting the sample for every lookup would cost more
+ * than the calls being measured, so the requested percentile is recomputed only after a number of new samples
+ * equal to a tenth of the buffer size has been recorded.
+ */
+public class LatencyTracker {
+
+    /**
+     * Most recent latencies in nanoseconds. Guarded by {@code this}, as are all fields below.
+     */
+    private final long[] samples;
+
+    /**
+     * Percentile reported by {@link #percentileNanos()}, between 0 and 100.
+     */
+    private final double percentile;
+
+    private int nextSlot;
+    private int size;
+    private int recordedSinceRecompute;
+    private long cachedPercentileNanos = -1;
+
+    /**
+     * Constructs a new {@code LatencyTracker}.
+     *
+     * @param sampleSize the number of recent latencies to keep.
+     * @param percentile the percentile to report, between 0 and 100.
+     */
+    public LatencyTracker(int sampleSize, double percentile) {
+        this.samples = new long[Math.max(1, sampleSize)];
+        this.percentile = Math.max(0d, Math.min(100d, percentile));
+    }
+
+    /**
+     * Records the latency of a completed call.
+     *
+     * @param latencyNanos the latency in nanoseconds.
+     */
+    public synchronized void record(long latencyNanos) {
+        samples[nextSlot] = latencyNanos;
+        nextSlot = (nextSlot + 1) % samples.length;
+        if (size < samples.length) {
+            size++;
+        }
+        recordedSinceRecompute++;
+    }
+
+    /**
+     * Returns the number of latencies currently in the sample.
+     *
+     * @return the sample size.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the configured percentile of the sampled latencies.
+     *
+     * @return the percentile latency in nanoseconds, or {@code -1} if nothing has been recorded.
+     */
+    public synchronized long percentileNanos() {
+        if (size == 0) {
+            return -1;
+        }
+        if (cachedPercentileNanos < 0 || recordedSinceRecompute >= Math.max(1, samples.length / 10)) {
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100d * size) - 1;
+            cachedPercentileNanos = sorted[Math.max(0, Math.min(size - 1, index))];
+            recordedSinceRecompute = 0;
+        }
+        return cachedPercentileNanos;
+    }
+}
@@ -0,0 +1,30 @@
+package com.caching.service.resilience;
+
+/**
+ * Progress of one upstream call as reported by the {@link com.caching.service.provider.GeocodingProviderRouter},
+ * for components wrapping the router that need to tell time spent waiting for admission from time spent at the
+ * provider.
+ */
+public interface UpstreamCallListener {
+
+    /**
+     * Listener ignoring all progress.
+     */
+    UpstreamCallListener NONE = new UpstreamCallListener() {
+    };
+
+    /**
+     * Called when a request is sent to a provider, after its rate limit token was granted and its circuit
+     * breaker admitted it. Called again for each provider the call fails over to.
+     */
+    default void onSent() {
+    }
+
+    /**
+     * Called when a provider answered successfully.
+     *
+     * @param latencyNanos the time from sending the request to receiving the answer, in nanoseconds.
+     */
+    default void onSucceeded(long latencyNanos) {
+    }
+}
@@ -0,0 +1,328 @@
+/**
+ * Circuit breaker around calls to an external geocoding provider. Each provider has its own instance, so a
+ * degraded provider does not cut off the others.
+ *
+ * <p>Outcomes of the last {@code circuit-breaker.window-size} calls are kept in a ring buffer. Once the window
+ * holds at least {@code circuit-breaker.minimum-calls} outcomes and either the failure rate or the rate of calls
+ * slower than {@code circuit-breaker.slow-call-threshold-ms} reaches its threshold, the breaker opens and every
+ * call fails fast with an {@link UpstreamUnavailableException} instead of tying up a request thread on a degraded
+ * provider. After {@code circuit-breaker.open-duration-ms} the breaker lets {@code circuit-breaker.half-open-probes}
+ * trial calls through: if all of them succeed quickly it closes again, otherwise it reopens.
+ *
+ * <p>Only server errors and I/O failures count as failures. Client errors, such as an address without results,
+ * say nothing about the provider's health and are recorded as successes.
+ */
+package com.caching.service.resilience;
+
+import com.caching.exception.UpstreamUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+public class UpstreamCircuitBreaker {
+
+    /**
+     * States of the breaker.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Outcome flags stored in the ring buffer.
+     */
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    /**
+     * Name of the provider the breaker protects.
+     */
+    private final String name;
+
+    /**
+     * Whether the circuit breaker is active, retrieved from application properties.
+     */
+    @Value("${circuit-breaker.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Number of recent calls the rates are computed over, retrieved from application properties.
+     */
+    @Value("${circuit-breaker.window-size:20}")
+    private int windowSize;
+
+    /**
+     * Minimum number of recorded calls before the breaker may open, retrieved from application properties.
+     */
+    @Value("${circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    /**
+     * Failure rate in percent at which the breaker opens, retrieved from application properties.
+     */
+    @Value("${circuit-breaker.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+
+    /**
+     * Duration in milliseconds above which a call counts as slow, retrieved from application properties.
+     */
+    @Value("${circuit-breaker.slow-call-threshold-ms:3000}")
+    private long slowCallThresholdMs;
+
+    /**
+     * Slow call rate in percent at which the breaker opens, retrieved from application properties.
+     */
+    @Value("${circuit-breaker.slow-call-rate-threshold:80}")
+    private int slowCallRateThreshold;
+
+    /**
+     * Time in milliseconds the breaker stays open before probing, retrieved from application properties.
+     */
+    @Value("${circuit-breaker.open-duration-ms:10000}")
+    private long openDurationMs;
+
+    /**
+     * Number of trial calls allowed while half-open, retrieved from application properties.
+     */
+    @Value("${circuit-breaker.half-open-probes:3}")
+    private int halfOpenProbes;
+
+    /**
+     * Outcome flags of the most recent calls. Guarded by {@code this}, as are all fields below.
+     */
+    private byte[] outcomes;
+    private int nextSlot;
+    private int recordedCalls;
+    private int failedCalls;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+
+    /**
+     * Incremented on every state change, so outcomes of calls admitted in an earlier state are ignored.
+     */
+    private long generation;
+
+    private long openedAtNanos;
+    private int probesIssued;
+    private int probesSucceeded;
+
+    /**
+     * Constructs a new {@code UpstreamCircuitBreaker}.
+     *
+     * @param name the name of the provider the breaker protects.
+     */
+    public UpstreamCircuitBreaker(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Allocates the outcome window.
+     */
+    @PostConstruct
+    public void init() {
+        outcomes = new byte[Math.max(1, windowSize)];
+    }
+
+    /**
+     * Runs an upstream call through the breaker.
+     *
+     * @param admission work to run once the breaker admits the call but before it is timed, such as waiting for
+     *                  a rate limit token. Its failures release the admission without being recorded.
+     * @param call      the upstream call. An {@link Error} it throws says nothing about the provider, so it
+     *                  releases the admission without being recorded as well.
+     * @param <T>       the result type.
+     * @return the result of the call.
+     * @throws UpstreamUnavailableException if the breaker is open.
+     */
+    public <T> T execute(Runnable admission, Supplier<T> call) {
+        if (!enabled) {
+            admission.run();
+            return call.get();
+        }
+        long permit = acquirePermission();
+        try {
+            admission.run();
+        } catch (Throwable e) {
+            release(permit);
+            throw e;
+        }
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            record(permit, System.nanoTime() - start, null);
+            return result;
+        } catch (Throwable e) {
+            complete(permit, System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #execute(Runnable, Supplier)}.
+     *
+     * @param admission asynchronous work to complete before the call is started and timed.
+     * @param call      the upstream call.
+     * @param <T>       the result type.
+     * @return a future completed with the result of the call, or exceptionally with an
+     * {@link UpstreamUnavailableException} if the breaker is open.
+     */
+    public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<Void>> admission,
+                                                 Supplier<CompletableFuture<T>> call) {
+        if (!enabled) {
+            return admission.get().thenCompose(ignored -> call.get());
+        }
+        long permit;
+        try {
+            permit = acquirePermission();
+        } catch (UpstreamUnavailableException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        admission.get().whenComplete((ignored, admissionError) -> {
+            if (admissionError != null) {
+                release(permit);
+                result.completeExceptionally(UpstreamErrors.unwrap(admissionError));
+                return;
+            }
+            long start = System.nanoTime();
+            CompletableFuture<T> future;
+            try {
+                future = call.get();
+            } catch (Throwable e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((value, error) -> {
+                complete(permit, System.nanoTime() - start, error == null ? null : UpstreamErrors.unwrap(error));
+                if (error != null) {
+                    result.completeExceptionally(UpstreamErrors.unwrap(error));
+                } else {
+                    result.complete(value);
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * Returns the current state of the breaker.
+     *
+     * @return the current state.
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Admits a call or rejects it when the breaker is open or all half-open probes are in flight.
+     *
+     * @return the generation the call was admitted in.
+     */
+    private synchronized long acquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < TimeUnit.MILLISECONDS.toNanos(openDurationMs)) {
+                throw new UpstreamUnavailableException("Geocoding provider " + name + " is unavailable, please retry later");
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesIssued >= halfOpenProbes) {
+                throw new UpstreamUnavailableException("Geocoding provider " + name + " is unavailable, please retry later");
+            }
+            probesIssued++;
+        }
+        return generation;
+    }
+
+    /**
+     * Gives back an admission whose call never reached the provider.
+     */
+    private synchronized void release(long permit) {
+        if (permit == generation && state == State.HALF_OPEN) {
+            probesIssued--;
+        }
+    }
+
+    /**
+     * Ends an admitted call: records its outcome, or releases the admission if the call failed with an
+     * {@link Error}, so that a half-open probe is never left in flight.
+     */
+    private void complete(long permit, long durationNanos, Throwable error) {
+        if (error instanceof Error) {
+            release(permit);
+        } else {
+            record(permit, durationNanos, error);
+        }
+    }
+
+    /**
+     * Records the outcome of an admitted call and applies any resulting state change.
+     */
+    private synchronized void record(long permit, long durationNanos, Throwable error) {
+        if (permit != generation) {
+            return;
+        }
+        boolean failed = error != null && UpstreamErrors.isTransient(error);
+        boolean slow = durationNanos > TimeUnit.MILLISECONDS.toNanos(slowCallThresholdMs);
+        if (state == State.HALF_OPEN) {
+            if (failed || slow) {
+                log.warn("Half-open probe to {} {}, reopening circuit", name, failed ? "failed" : "was slow");
+                transitionTo(State.OPEN);
+            } else if (++probesSucceeded >= halfOpenProbes) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (recordedCalls == outcomes.length) {
+            byte evicted = outcomes[nextSlot];
+            failedCalls -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            recordedCalls++;
+        }
+        outcomes[nextSlot] = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+        failedCalls += failed ? 1 : 0;
+        slowCalls += slow ? 1 : 0;
+        nextSlot = (nextSlot + 1) % outcomes.length;
+
+        if (recordedCalls >= minimumCalls) {
+            int failureRate = failedCalls * 100 / recordedCalls;
+            int slowCallRate = slowCalls * 100 / recordedCalls;
+            if (failureRate >= failureRateThreshold || slowCallRate >= slowCallRateThreshold) {
+                log.warn("Opening circuit for {}: failure rate {}%, slow call rate {}% over {} calls",
+                        name, failureRate, slowCallRate, recordedCalls);
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * Moves to a new state and resets the bookkeeping of the previous one.
+     */
+    private void transitionTo(State newState) {
+        log.info("Circuit breaker state change for {}: {} -> {}", name, state, newState);
+        state = newState;
+        generation++;
+        probesIssued = 0;
+        probesSucceeded = 0;
+        if (newState == State.OPEN) {
+            openedAtNanos = System.nanoTime();
+        }
+        if (newState == State.CLOSED) {
+            recordedCalls = 0;
+            failedCalls = 0;
+            slowCalls = 0;
+            nextSlot = 0;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.caching.service.resilience;
+
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Classification of errors raised by upstream calls, shared by the resilience components.
+ */
+public final class UpstreamErrors {
+
+    private UpstreamErrors() {
+    }
+
+    /**
+     * Returns whether an error indicates a transient problem with the provider, such as a server error,
+     * a timeout or a dropped connection, rather than a bad request.
+     *
+     * @param error the error raised by an upstream call.
+     * @return {@code true} if the provider, not the request, is at fault.
+     */
+    public static boolean isTransient(Throwable error) {
+        return error instanceof HttpServerErrorException
+                || error instanceof ResourceAccessException
+                || error instanceof UncheckedIOException
+                || error instanceof IOException;
+    }
+
+    /**
+     * Unwraps the {@link CompletionException} added by dependent stages.
+     *
+     * @param error the error a future completed with.
+     * @return the underlying error.
+     */
+    public static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * Token-bucket rate limiter placed in front of every call to an external geocoding provider.
+ *
+ * <p>Each provider has its own instance, created with the provider's quota. Tokens are added at the configured
+ * rate up to the configured burst, so short bursts are absorbed while the sustained rate stays within the provider quota. A caller
+ * that finds the bucket empty reserves the next token and waits for it, as long as the wait fits within
+ * {@code rate-limiter.max-wait-ms}; otherwise it is rejected immediately, without consuming a token, rather
+ * than queueing past its deadline.
+ */
+package com.caching.service.resilience;
+
+import com.caching.exception.RateLimitExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+@Slf4j
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+public class UpstreamRateLimiter {
+
+    /**
+     * Name of the provider whose calls are limited.
+     */
+    private final String name;
+
+    /**
+     * Sustained number of upstream calls allowed per second.
+     */
+    private final double permitsPerSecond;
+
+    /**
+     * Maximum number of tokens that can accumulate while idle.
+     */
+    private final double burst;
+
+    /**
+     * Whether upstream calls are rate limited, retrieved from application properties.
+     */
+    @Value("${rate-limiter.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Maximum time in milliseconds a caller may wait for a token, retrieved from application properties.
+     */
+    @Value("${rate-limiter.max-wait-ms:2000}")
+    private long maxWaitMs;
+
+    /**
+     * Nanoseconds between two tokens.
+     */
+    private double intervalNanos;
+
+    /**
+     * Tokens currently available. Guarded by {@code this}.
+     */
+    private double storedPermits;
+
+    /**
+     * Time at which the next token becomes available; in the past while tokens are stored. Guarded by {@code this}.
+     */
+    private long nextFreeNanos;
+
+    /**
+     * Constructs a new {@code UpstreamRateLimiter}.
+     *
+     * @param name             the name of the provider whose calls are limited.
+     * @param permitsPerSecond the sustained number of calls allowed per second.
+     * @param burst            the maximum number of tokens that can accumulate while idle.
+     */
+    public UpstreamRateLimiter(String name, double permitsPerSecond, double burst) {
+        this.name = name;
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+    }
+
+    /**
+     * Starts with a full bucket.
+     */
+    @PostConstruct
+    public void init() {
+        intervalNanos = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        storedPermits = burst;
+        nextFreeNanos = System.nanoTime();
+        if (enabled) {
+            log.info("Rate limiting {} calls to {} per second with a burst of {}", name, permitsPerSecond, burst);
+        }
+    }
+
+    /**
+     * Blocks until a token is available.
+     *
+     * @throws RateLimitExceededException if no token becomes available within the maximum wait.
+     */
+    public void acquire() {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            long deadline = System.nanoTime() + waitNanos;
+            long remaining = waitNanos;
+            while (remaining > 0) {
+                LockSupport.parkNanos(remaining);
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new RateLimitExceededException("Interrupted while waiting for the upstream rate limit");
+                }
+                remaining = deadline - System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Returns a future that completes once a token is available, without blocking the calling thread.
+     *
+     * @return a future completed when the call may proceed, or exceptionally with a
+     * {@link RateLimitExceededException} if no token becomes available within the maximum wait.
+     */
+    public CompletableFuture<Void> acquireAsync() {
+        long waitNanos;
+        try {
+            waitNanos = reserve();
+        } catch (RateLimitExceededException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (waitNanos <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Reserves the next token.
+     *
+     * @return the time in nanoseconds the caller must wait before using the token.
+     * @throws RateLimitExceededException if the wait would exceed the maximum wait.
+     */
+    private long reserve() {
+        if (!enabled) {
+            return 0;
+        }
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (now > nextFreeNanos) {
+                storedPermits = Math.min(burst, storedPermits + (now - nextFreeNanos) / intervalNanos);
+                nextFreeNanos = now;
+            }
+            long waitNanos = nextFreeNanos - now;
+            if (waitNanos > TimeUnit.MILLISECONDS.toNanos(maxWaitMs)) {
+                log.warn("Rejecting {} call: rate limit wait of {} ms exceeds {} ms",
+                        name, TimeUnit.NANOSECONDS.toMillis(waitNanos), maxWaitMs);
+                throw new RateLimitExceededException("Upstream rate limit exceeded for " + name + ", please retry later");
+            }
+            double fromStored = Math.min(1d, storedPermits);
+            storedPermits -= fromStored;
+            nextFreeNanos += (long) ((1d - fromStored) * intervalNanos);
+            return waitNanos;
+        }
+    }
+}
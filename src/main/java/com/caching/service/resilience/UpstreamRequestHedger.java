@@ -0,0 +1,402 @@
+/**
+ * Hedges slow upstream calls to cut tail latency.
+ *
+ * <p>When a call has not completed after the {@code hedging.percentile} latency of recent calls (never less than
+ * {@code hedging.min-delay-ms}), an identical second call is started and whichever succeeds first is returned.
+ * Hedging only starts once {@code hedging.min-samples} latencies have been observed, so the delay reflects the
+ * provider rather than a cold start. Latencies are those the provider router reports through an
+ * {@link UpstreamCallListener}, from sending a request to its answer, and the delay is counted from the moment the
+ * request is sent: a call still waiting for a rate limit token is never hedged, since a hedge would only queue
+ * behind it, and token waits never inflate the percentile.
+ *
+ * <p>Hedges are bounded by a budget: every call deposits {@code hedging.max-fraction-percent / 100} of a token and
+ * every hedge withdraws one, so at most that fraction of traffic is duplicated even when the provider slows down
+ * across the board. Calls, hedges sent, hedges that won and hedges skipped for lack of budget are counted, read
+ * through the getters and logged every {@code hedging.stats-interval-ms}.
+ */
+package com.caching.service.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class UpstreamRequestHedger {
+
+    /**
+     * Maximum number of hedge tokens that can accumulate during quiet periods.
+     */
+    private static final double MAX_BUDGET_TOKENS = 10d;
+
+    /**
+     * Whether slow calls are hedged, retrieved from application properties.
+     */
+    @Value("${hedging.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Latency percentile after which a call is hedged, retrieved from application properties.
+     */
+    @Value("${hedging.percentile:95}")
+    private double percentile;
+
+    /**
+     * Lower bound in milliseconds of the hedge delay, retrieved from application properties.
+     */
+    @Value("${hedging.min-delay-ms:50}")
+    private long minDelayMs;
+
+    /**
+     * Number of recent latencies the percentile is computed over, retrieved from application properties.
+     */
+    @Value("${hedging.sample-size:1000}")
+    private int sampleSize;
+
+    /**
+     * Number of latencies observed before hedging starts, retrieved from application properties.
+     */
+    @Value("${hedging.min-samples:100}")
+    private int minSamples;
+
+    /**
+     * Maximum share of calls in percent that may be hedged, retrieved from application properties.
+     */
+    @Value("${hedging.max-fraction-percent:5}")
+    private double maxFractionPercent;
+
+    /**
+     * Number of threads running blocking calls so they can be hedged, retrieved from application properties.
+     */
+    @Value("${hedging.pool-size:32}")
+    private int poolSize;
+
+    /**
+     * Counters exposed through the getters and logged by {@link #logStatistics()}.
+     */
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong hedgesSent = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+    private final AtomicLong hedgesSkipped = new AtomicLong();
+
+    /**
+     * Latencies of recent successful calls.
+     */
+    private LatencyTracker latencyTracker;
+
+    /**
+     * Pool running blocking calls and their hedges while the caller waits.
+     */
+    private ExecutorService executor;
+
+    /**
+     * Hedge tokens currently available. Guarded by {@code this}.
+     */
+    private double budgetTokens;
+
+    /**
+     * Creates the latency tracker and, if hedging is enabled, the pool for blocking calls.
+     */
+    @PostConstruct
+    public void start() {
+        latencyTracker = new LatencyTracker(sampleSize, percentile);
+        if (enabled) {
+            AtomicInteger threadCount = new AtomicInteger();
+            executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(poolSize),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "upstream-hedge-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            ((ThreadPoolExecutor) executor).allowCoreThreadTimeOut(true);
+        }
+    }
+
+    /**
+     * Shuts down the pool for blocking calls.
+     */
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs a blocking upstream call, hedging it if it is slower than the hedge delay.
+     *
+     * <p>When hedging is disabled, or the pool is saturated, the call runs on the caller's thread.
+     *
+     * @param call the upstream call, passing the given listener on to the provider router.
+     * @param <T>  the result type.
+     * @return the result of the first successful call.
+     */
+    public <T> T execute(Function<UpstreamCallListener, T> call) {
+        if (!enabled) {
+            return call.apply(UpstreamCallListener.NONE);
+        }
+        Attempt primaryAttempt = new Attempt();
+        CompletableFuture<T> primary;
+        try {
+            primary = CompletableFuture.supplyAsync(() -> call.apply(primaryAttempt), executor);
+        } catch (RejectedExecutionException e) {
+            return call.apply(primaryAttempt);
+        }
+        calls.incrementAndGet();
+        deposit();
+        long delayNanos = hedgeDelayNanos();
+        try {
+            if (delayNanos < 0) {
+                return primary.get();
+            }
+            CompletableFuture.anyOf(primaryAttempt.sent, primary).get();
+            if (!primaryAttempt.sent.isDone()) {
+                return primary.get();
+            }
+            long remainingNanos = primaryAttempt.sent.join() + delayNanos - System.nanoTime();
+            try {
+                return primary.get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                CompletableFuture<T> hedge = startHedge(
+                        () -> CompletableFuture.supplyAsync(() -> call.apply(new Attempt()), executor));
+                return hedge == null ? primary.get() : firstSuccess(primary, hedge).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #execute(Function)}.
+     *
+     * @param call the upstream call, passing the given listener on to the provider router.
+     * @param <T>  the result type.
+     * @return a future completed with the result of the first successful call.
+     */
+    public <T> CompletableFuture<T> executeAsync(Function<UpstreamCallListener, CompletableFuture<T>> call) {
+        if (!enabled) {
+            return call.apply(UpstreamCallListener.NONE);
+        }
+        calls.incrementAndGet();
+        deposit();
+        Attempt primaryAttempt = new Attempt();
+        CompletableFuture<T> primary = startAsync(call, primaryAttempt);
+        long delayNanos = hedgeDelayNanos();
+        if (delayNanos < 0) {
+            return primary;
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicBoolean decided = new AtomicBoolean();
+        primary.whenComplete((value, error) -> {
+            if (decided.compareAndSet(false, true)) {
+                complete(result, value, error);
+            }
+        });
+        primaryAttempt.sent.thenAccept(sentNanos -> CompletableFuture.delayedExecutor(
+                Math.max(0, sentNanos + delayNanos - System.nanoTime()), TimeUnit.NANOSECONDS).execute(() -> {
+            if (!decided.compareAndSet(false, true)) {
+                return;
+            }
+            CompletableFuture<T> hedge = startHedge(() -> startAsync(call, new Attempt()));
+            (hedge == null ? primary : firstSuccess(primary, hedge))
+                    .whenComplete((value, error) -> complete(result, value, error));
+        }));
+        return result;
+    }
+
+    /**
+     * Returns the number of calls that were eligible for hedging.
+     *
+     * @return the number of calls.
+     */
+    public long getCalls() {
+        return calls.get();
+    }
+
+    /**
+     * Returns the number of hedges started.
+     *
+     * @return the number of hedges sent.
+     */
+    public long getHedgesSent() {
+        return hedgesSent.get();
+    }
+
+    /**
+     * Returns the number of hedges that completed successfully before their primary call.
+     *
+     * @return the number of hedges won.
+     */
+    public long getHedgesWon() {
+        return hedgesWon.get();
+    }
+
+    /**
+     * Returns the number of hedges not started because the budget was exhausted.
+     *
+     * @return the number of hedges skipped.
+     */
+    public long getHedgesSkipped() {
+        return hedgesSkipped.get();
+    }
+
+    /**
+     * Logs the counters and the current hedge delay, so the hedge rate and its payoff can be followed
+     * without a debugger.
+     */
+    @Scheduled(fixedDelayString = "${hedging.stats-interval-ms:60000}",
+            initialDelayString = "${hedging.stats-interval-ms:60000}")
+    public void logStatistics() {
+        if (!enabled) {
+            return;
+        }
+        long delayNanos = hedgeDelayNanos();
+        log.info("Upstream hedging: {} calls, {} hedges sent, {} won, {} skipped for budget, hedge delay {}",
+                getCalls(), getHedgesSent(), getHedgesWon(), getHedgesSkipped(),
+                delayNanos < 0 ? "not yet known" : TimeUnit.NANOSECONDS.toMillis(delayNanos) + " ms");
+    }
+
+    /**
+     * Returns the current hedge delay in nanoseconds, or {@code -1} while too few latencies are known.
+     */
+    private long hedgeDelayNanos() {
+        if (latencyTracker.size() < minSamples) {
+            return -1;
+        }
+        return Math.max(TimeUnit.MILLISECONDS.toNanos(minDelayMs), latencyTracker.percentileNanos());
+    }
+
+    /**
+     * Starts a hedge if the budget allows it.
+     *
+     * @return the hedge, or {@code null} if the budget is exhausted or the pool is saturated.
+     */
+    private <T> CompletableFuture<T> startHedge(Supplier<CompletableFuture<T>> hedgeCall) {
+        if (!withdraw()) {
+            hedgesSkipped.incrementAndGet();
+            return null;
+        }
+        try {
+            CompletableFuture<T> hedge = hedgeCall.get();
+            hedgesSent.incrementAndGet();
+            log.info("Hedging slow upstream call after {} ms", TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos()));
+            return hedge;
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns a future completed by the first of two calls to succeed, or with the primary's failure if both fail.
+     */
+    private <T> CompletableFuture<T> firstSuccess(CompletableFuture<T> primary, CompletableFuture<T> hedge) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicBoolean otherFailed = new AtomicBoolean();
+        primary.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else if (otherFailed.getAndSet(true)) {
+                result.completeExceptionally(UpstreamErrors.unwrap(error));
+            }
+        });
+        hedge.whenComplete((value, error) -> {
+            if (error == null) {
+                if (result.complete(value)) {
+                    hedgesWon.incrementAndGet();
+                }
+            } else if (otherFailed.getAndSet(true)) {
+                primary.whenComplete((ignored, primaryError) -> {
+                    if (primaryError != null) {
+                        result.completeExceptionally(UpstreamErrors.unwrap(primaryError));
+                    }
+                });
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Starts an asynchronous call, turning a failure to start it into a failed future.
+     */
+    private static <T> CompletableFuture<T> startAsync(Function<UpstreamCallListener, CompletableFuture<T>> call,
+                                                      Attempt attempt) {
+        try {
+            return call.apply(attempt);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Completes a future with an outcome, unwrapping the failure of a dependent stage.
+     */
+    private static <T> void complete(CompletableFuture<T> result, T value, Throwable error) {
+        if (error == null) {
+            result.complete(value);
+        } else {
+            result.completeExceptionally(UpstreamErrors.unwrap(error));
+        }
+    }
+
+    /**
+     * One call or hedge: records when its request was first sent and the provider latencies reported for it.
+     */
+    private final class Attempt implements UpstreamCallListener {
+
+        /**
+         * Completed with {@link System#nanoTime()} when the first request of the attempt is sent.
+         */
+        private final CompletableFuture<Long> sent = new CompletableFuture<>();
+
+        @Override
+        public void onSent() {
+            sent.complete(System.nanoTime());
+        }
+
+        @Override
+        public void onSucceeded(long latencyNanos) {
+            latencyTracker.record(latencyNanos);
+        }
+    }
+
+    /**
+     * Credits the budget for a call.
+     */
+    private synchronized void deposit() {
+        budgetTokens = Math.min(MAX_BUDGET_TOKENS, budgetTokens + maxFractionPercent / 100d);
+    }
+
+    /**
+     * Takes a token for a hedge.
+     *
+     * @return {@code true} if a token was available.
+     */
+    private synchronized boolean withdraw() {
+        if (budgetTokens < 1d) {
+            return false;
+        }
+        budgetTokens -= 1d;
+        return true;
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * Retries transient upstream failures with jittered exponential backoff, bounded by a global retry budget.
+ *
+ * <p>Only server errors, timeouts and I/O failures are retried; client errors, addresses without results,
+ * rate limit rejections and an open circuit are returned immediately. The delay before retry {@code n} is drawn
+ * uniformly from {@code [0, min(retry.max-backoff-ms, retry.initial-backoff-ms * retry.multiplier^(n-1))]}
+ * ("full jitter"), so callers that failed together do not retry together.
+ *
+ * <p>Every first attempt deposits {@code retry.budget-percent / 100} of a token into the budget, up to
+ * {@code retry.budget-max-tokens}, and every retry withdraws a whole token. Retries therefore stay a fixed
+ * fraction of live traffic: a short blip is absorbed, while a sustained outage quickly drains the budget and
+ * failures are surfaced instead of multiplying the load on the provider.
+ */
+package com.caching.service.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class UpstreamRetryPolicy {
+
+    /**
+     * Budget units per retry token. The budget is counted in thousandths of a token so that fractional deposits
+     * add up exactly: ten 10% deposits always pay for one retry.
+     */
+    private static final long TOKEN = 1000;
+
+    /**
+     * Whether transient failures are retried, retrieved from application properties.
+     */
+    @Value("${retry.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Maximum number of attempts including the first one, retrieved from application properties.
+     */
+    @Value("${retry.max-attempts:3}")
+    private int maxAttempts;
+
+    /**
+     * Upper bound in milliseconds of the delay before the first retry, retrieved from application properties.
+     */
+    @Value("${retry.initial-backoff-ms:100}")
+    private long initialBackoffMs;
+
+    /**
+     * Upper bound in milliseconds of the delay before any retry, retrieved from application properties.
+     */
+    @Value("${retry.max-backoff-ms:2000}")
+    private long maxBackoffMs;
+
+    /**
+     * Factor by which the backoff bound grows per retry, retrieved from application properties.
+     */
+    @Value("${retry.multiplier:2.0}")
+    private double multiplier;
+
+    /**
+     * Retries allowed per hundred first attempts, retrieved from application properties.
+     */
+    @Value("${retry.budget-percent:10}")
+    private double budgetPercent;
+
+    /**
+     * Maximum number of retry tokens that can accumulate, retrieved from application properties.
+     */
+    @Value("${retry.budget-max-tokens:10}")
+    private double budgetMaxTokens;
+
+    /**
+     * Retry budget currently available, in thousandths of a token. Guarded by {@code this}.
+     */
+    private long budget;
+
+    /**
+     * Starts with a full budget, so a blip right after startup can still be retried.
+     */
+    @PostConstruct
+    public void init() {
+        budget = maxBudget();
+    }
+
+    /**
+     * Runs an upstream call, retrying transient failures.
+     *
+     * @param attempt a single attempt of the call.
+     * @param <T>     the result type.
+     * @return the result of the first successful attempt.
+     */
+    public <T> T execute(Supplier<T> attempt) {
+        deposit();
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                return attempt.get();
+            } catch (RuntimeException e) {
+                long backoffMs = nextBackoff(attemptNumber, e);
+                if (backoffMs < 0) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #execute(Supplier)} that waits out backoffs without blocking a thread.
+     *
+     * @param attempt a single attempt of the call.
+     * @param <T>     the result type.
+     * @return a future completed with the result of the first successful attempt.
+     */
+    public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> attempt) {
+        deposit();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        runAttempt(attempt, 1, result);
+        return result;
+    }
+
+    /**
+     * Runs one asynchronous attempt and schedules the next one if it fails transiently.
+     */
+    private <T> void runAttempt(Supplier<CompletableFuture<T>> attempt, int attemptNumber, CompletableFuture<T> result) {
+        CompletableFuture<T> future;
+        try {
+            future = attempt.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = UpstreamErrors.unwrap(error);
+            long backoffMs = nextBackoff(attemptNumber, cause);
+            if (backoffMs < 0) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            CompletableFuture.delayedExecutor(backoffMs, TimeUnit.MILLISECONDS)
+                    .execute(() -> runAttempt(attempt, attemptNumber + 1, result));
+        });
+    }
+
+    /**
+     * Decides whether a failed attempt is retried and withdraws a budget token if so.
+     *
+     * @param attemptNumber the number of the failed attempt, starting at 1.
+     * @param error         the failure.
+     * @return the delay in milliseconds before the next attempt, or {@code -1} if the failure is returned.
+     */
+    private long nextBackoff(int attemptNumber, Throwable error) {
+        Throwable cause = UpstreamErrors.unwrap(error);
+        if (!enabled || attemptNumber >= maxAttempts || !UpstreamErrors.isTransient(cause)) {
+            return -1;
+        }
+        if (!withdraw()) {
+            log.warn("Retry budget exhausted, not retrying upstream failure: {}", cause.getMessage());
+            return -1;
+        }
+        double bound = Math.min(maxBackoffMs, initialBackoffMs * Math.pow(multiplier, attemptNumber - 1));
+        long backoffMs = (long) (ThreadLocalRandom.current().nextDouble() * bound);
+        log.info("Retrying upstream call after attempt {} failed ({}), backing off {} ms",
+                attemptNumber, cause.getMessage(), backoffMs);
+        return backoffMs;
+    }
+
+    /**
+     * Credits the budget for a first attempt.
+     */
+    private synchronized void deposit() {
+        budget = Math.min(maxBudget(), budget + Math.round(budgetPercent * TOKEN / 100d));
+    }
+
+    /**
+     * Takes a token for a retry.
+     *
+     * @return {@code true} if a token was available.
+     */
+    private synchronized boolean withdraw() {
+        if (budget < TOKEN) {
+            return false;
+        }
+        budget -= TOKEN;
+        return true;
+    }
+
+    private long maxBudget() {
+        return Math.round(budgetMaxTokens * TOKEN);
+    }
+}
@@ -0,0 +1,139 @@
+package com.caching.service.spatial;
+
+import com.caching.service.cacherefresh.WriteTimeAwareCache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Spring {@link org.springframework.cache.Cache} for the reverse geocoding cache in {@code exact} key mode,
+ * storing its entries in a {@link CoordinateStore}.
+ *
+ * <p>Keys are the latitude/longitude pairs resolved by {@link ReverseGeocodingKeyResolver}. They are unpacked into
+ * two {@code double}s on every call and never retained, so the cache holds no key objects, boxed coordinates or
+ * map nodes per entry, and a hit returns the stored value without allocating. As the cache itself, the store is
+ * reached only through the regular lookup path, so the negative result cache, access tracking and refresh-ahead
+ * apply as for any other cache, and evictions and {@link #clear()} take effect immediately.
+ *
+ * <p>The capacity bounds the number of entries and the oldest written entry is evicted first. Expire-after-write
+ * and expire-after-access are honoured. Keys that are not coordinate pairs and {@code null} values cannot be
+ * stored.
+ */
+public class CoordinateCache extends AbstractValueAdaptingCache implements WriteTimeAwareCache {
+
+    private final String name;
+
+    private final CoordinateStore<Object> store;
+
+    /**
+     * Constructs a new {@code CoordinateCache}, allocating its arrays up front.
+     *
+     * @param name              the name of the cache.
+     * @param capacity          the maximum number of entries.
+     * @param expireAfterWrite  the time after which entries expire, or {@code null} for none.
+     * @param expireAfterAccess the time after the last read or write after which entries expire, or
+     *                          {@code null} for none.
+     */
+    public CoordinateCache(String name, int capacity, Duration expireAfterWrite, Duration expireAfterAccess) {
+        super(false);
+        this.name = name;
+        this.store = new CoordinateStore<>(capacity,
+                expireAfterWrite != null ? expireAfterWrite.toMillis() : Long.MAX_VALUE,
+                expireAfterAccess != null ? expireAfterAccess.toMillis() : Long.MAX_VALUE);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return isCoordinateKey(key) ? store.get(latitude(key), longitude(key)) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * Stores an entry, replacing any previous entry for the key.
+     *
+     * @param key   the cache key.
+     * @param value the value to store.
+     * @throws IllegalArgumentException if the key is not a valid coordinate pair or the value is {@code null}.
+     */
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        if (!isCoordinateKey(key) || !store.put(latitude(key), longitude(key), storeValue)) {
+            throw new IllegalArgumentException("Coordinate cache " + name + " cannot store " + key + " -> " + value);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        if (isCoordinateKey(key)) {
+            store.remove(latitude(key), longitude(key));
+        }
+    }
+
+    @Override
+    public void clear() {
+        store.clear();
+    }
+
+    @Override
+    public Long getWriteTime(Object key) {
+        if (!isCoordinateKey(key)) {
+            return null;
+        }
+        long writeTime = store.getWriteTime(latitude(key), longitude(key));
+        return writeTime >= 0 ? writeTime : null;
+    }
+
+    /**
+     * Returns the number of entries currently stored, including expired entries not yet reclaimed.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return store.size();
+    }
+
+    private static boolean isCoordinateKey(Object key) {
+        if (!(key instanceof List) || ((List<?>) key).size() != 2) {
+            return false;
+        }
+        List<?> coordinates = (List<?>) key;
+        return coordinates.get(0) instanceof Number && coordinates.get(1) instanceof Number;
+    }
+
+    private static double latitude(Object key) {
+        return ((Number) ((List<?>) key).get(0)).doubleValue();
+    }
+
+    private static double longitude(Object key) {
+        return ((Number) ((List<?>) key).get(1)).doubleValue();
+    }
+}
@@ -0,0 +1,346 @@
+package com.caching.service.spatial;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Fixed-capacity map from exact latitude/longitude pairs to values, built on primitive arrays.
+ *
+ * <p>Each coordinate is quantized to 1e-7 degrees and the pair is packed into a single {@code long}, which
+ * keys an open-addressing hash table with linear probing. The table holds entry indexes into parallel
+ * {@code double}, {@code long} and value arrays, so no key objects, boxed doubles or map nodes are kept per
+ * entry and a lookup allocates nothing. The quantized key only selects the slot: a hit also requires the
+ * stored coordinates to be equal to the queried ones, so distinct points are never confused.
+ *
+ * <p>Entries are linked in write order through {@code int} index arrays and a replaced entry moves to the newest
+ * end, so once the store is full each new entry evicts the oldest written one. Removed entries are kept on a free
+ * list and reused before anything is evicted. Entries past the expire-after-write or expire-after-access duration
+ * are treated as absent and reclaimed when they reach the oldest end. Coordinates outside the valid latitude and
+ * longitude ranges are not stored.
+ *
+ * @param <V> the value type.
+ */
+public class CoordinateStore<V> {
+
+    private static final double SCALE = 1e7;
+
+    /**
+     * Table marker for an empty slot.
+     */
+    private static final int EMPTY = -1;
+
+    private final int capacity;
+    private final int mask;
+
+    /**
+     * Expire-after-write and expire-after-access durations in milliseconds, {@link Long#MAX_VALUE} for none.
+     */
+    private final long expireAfterWriteMillis;
+    private final long expireAfterAccessMillis;
+
+    /**
+     * Hash table of entry indexes, {@link #EMPTY} for an unused slot.
+     */
+    private final int[] table;
+
+    private final long[] keys;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final long[] writeTimes;
+
+    /**
+     * Last read or write per entry. Updated under the read lock by concurrent readers; a lost update only
+     * moves the time by the length of the race.
+     */
+    private final long[] accessTimes;
+
+    /**
+     * Values per entry; an entry is in use iff its value is not {@code null}.
+     */
+    private final Object[] values;
+
+    /**
+     * Write-order links per entry in use, {@link #EMPTY} at either end. Free entries are chained through
+     * {@link #newer}.
+     */
+    private final int[] older;
+    private final int[] newer;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Oldest and newest entries in use and the first free entry, {@link #EMPTY} if none. Guarded by the write
+     * lock, as is {@link #size}.
+     */
+    private int oldest;
+    private int newest;
+    private int firstFree;
+    private int size;
+
+    /**
+     * Creates an empty store.
+     *
+     * @param capacity          the maximum number of entries.
+     * @param expireAfterWrite  the time in milliseconds after a write after which an entry expires, or
+     *                          {@link Long#MAX_VALUE} for none.
+     * @param expireAfterAccess the time in milliseconds after the last read or write after which an entry
+     *                          expires, or {@link Long#MAX_VALUE} for none.
+     */
+    public CoordinateStore(int capacity, long expireAfterWrite, long expireAfterAccess) {
+        this.capacity = Math.max(1, capacity);
+        int slots = Integer.highestOneBit(Math.max(2, this.capacity * 2 - 1)) << 1;
+        this.mask = slots - 1;
+        this.expireAfterWriteMillis = expireAfterWrite;
+        this.expireAfterAccessMillis = expireAfterAccess;
+        this.table = new int[slots];
+        Arrays.fill(table, EMPTY);
+        this.keys = new long[this.capacity];
+        this.latitudes = new double[this.capacity];
+        this.longitudes = new double[this.capacity];
+        this.writeTimes = new long[this.capacity];
+        this.accessTimes = new long[this.capacity];
+        this.values = new Object[this.capacity];
+        this.older = new int[this.capacity];
+        this.newer = new int[this.capacity];
+        reset();
+    }
+
+    /**
+     * Returns the live value stored for the exact coordinates and records the access.
+     *
+     * @param latitude  the latitude.
+     * @param longitude the longitude.
+     * @return the stored value, or {@code null} if absent or expired.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(double latitude, double longitude) {
+        if (!isValid(latitude, longitude)) {
+            return null;
+        }
+        long key = pack(latitude, longitude);
+        long now = System.currentTimeMillis();
+        lock.readLock().lock();
+        try {
+            int entry = table[find(key, latitude, longitude)];
+            if (entry == EMPTY || isExpired(entry, now)) {
+                return null;
+            }
+            accessTimes[entry] = now;
+            return (V) values[entry];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns when the live value for the exact coordinates was written, without recording an access.
+     *
+     * @param latitude  the latitude.
+     * @param longitude the longitude.
+     * @return the write timestamp in milliseconds, or {@code -1} if absent or expired.
+     */
+    public long getWriteTime(double latitude, double longitude) {
+        if (!isValid(latitude, longitude)) {
+            return -1;
+        }
+        long key = pack(latitude, longitude);
+        lock.readLock().lock();
+        try {
+            int entry = table[find(key, latitude, longitude)];
+            return entry == EMPTY || isExpired(entry, System.currentTimeMillis()) ? -1 : writeTimes[entry];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores a value for the exact coordinates, replacing any previous value for them.
+     *
+     * @param latitude  the latitude.
+     * @param longitude the longitude.
+     * @param value     the value.
+     * @return {@code true} if the value was stored, {@code false} if the coordinates are out of range.
+     */
+    public boolean put(double latitude, double longitude, V value) {
+        if (value == null || !isValid(latitude, longitude)) {
+            return false;
+        }
+        long key = pack(latitude, longitude);
+        long now = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            int slot = find(key, latitude, longitude);
+            int entry = table[slot];
+            if (entry != EMPTY) {
+                unlink(entry);
+            } else {
+                if (firstFree == EMPTY) {
+                    deleteSlot(find(keys[oldest], latitudes[oldest], longitudes[oldest]));
+                    slot = find(key, latitude, longitude);
+                }
+                entry = firstFree;
+                firstFree = newer[entry];
+                table[slot] = entry;
+                keys[entry] = key;
+                latitudes[entry] = latitude;
+                longitudes[entry] = longitude;
+                size++;
+            }
+            writeTimes[entry] = now;
+            accessTimes[entry] = now;
+            values[entry] = value;
+            linkNewest(entry);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the value stored for the exact coordinates.
+     *
+     * @param latitude  the latitude.
+     * @param longitude the longitude.
+     */
+    public void remove(double latitude, double longitude) {
+        if (!isValid(latitude, longitude)) {
+            return;
+        }
+        long key = pack(latitude, longitude);
+        lock.writeLock().lock();
+        try {
+            int slot = find(key, latitude, longitude);
+            if (table[slot] != EMPTY) {
+                deleteSlot(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            reset();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of entries, including expired entries whose position has not been reused yet.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean isExpired(int entry, long now) {
+        return now - writeTimes[entry] > expireAfterWriteMillis || now - accessTimes[entry] > expireAfterAccessMillis;
+    }
+
+    /**
+     * Returns the slot holding the exact coordinates, or the empty slot ending their probe sequence.
+     */
+    private int find(long key, double latitude, double longitude) {
+        int slot = home(key);
+        while (table[slot] != EMPTY) {
+            int entry = table[slot];
+            if (keys[entry] == key
+                    && Double.compare(latitudes[entry], latitude) == 0
+                    && Double.compare(longitudes[entry], longitude) == 0) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empties the table and chains every entry into the free list.
+     */
+    private void reset() {
+        Arrays.fill(table, EMPTY);
+        Arrays.fill(values, null);
+        for (int entry = 0; entry < capacity; entry++) {
+            newer[entry] = entry + 1 < capacity ? entry + 1 : EMPTY;
+        }
+        firstFree = 0;
+        oldest = EMPTY;
+        newest = EMPTY;
+        size = 0;
+    }
+
+    private void unlink(int entry) {
+        if (older[entry] == EMPTY) {
+            oldest = newer[entry];
+        } else {
+            newer[older[entry]] = newer[entry];
+        }
+        if (newer[entry] == EMPTY) {
+            newest = older[entry];
+        } else {
+            older[newer[entry]] = older[entry];
+        }
+    }
+
+    private void linkNewest(int entry) {
+        older[entry] = newest;
+        newer[entry] = EMPTY;
+        if (newest == EMPTY) {
+            oldest = entry;
+        } else {
+            newer[newest] = entry;
+        }
+        newest = entry;
+    }
+
+    /**
+     * Frees the entry in a table slot and empties the slot, shifting later slots of the same probe run back so
+     * that lookups never stop early at the hole.
+     */
+    private void deleteSlot(int hole) {
+        int entry = table[hole];
+        unlink(entry);
+        values[entry] = null;
+        newer[entry] = firstFree;
+        firstFree = entry;
+        size--;
+        for (int slot = (hole + 1) & mask; table[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int home = home(keys[table[slot]]);
+            boolean reachable = hole <= slot ? hole < home && home <= slot : hole < home || home <= slot;
+            if (!reachable) {
+                table[hole] = table[slot];
+                hole = slot;
+            }
+        }
+        table[hole] = EMPTY;
+    }
+
+    private int home(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Packs the quantized latitude into the upper and the quantized longitude into the lower 32 bits.
+     */
+    private static long pack(double latitude, double longitude) {
+        long lat = Math.round(latitude * SCALE);
+        long lng = Math.round(longitude * SCALE);
+        return (lat << 32) | (lng & 0xFFFFFFFFL);
+    }
+
+    private static boolean isValid(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+}
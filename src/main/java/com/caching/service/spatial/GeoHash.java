@@ -0,0 +1,72 @@
+package com.caching.service.spatial;
+
+/**
+ * Encoder for the standard base-32 geohash representation of a latitude/longitude pair.
+ *
+ * <p>A geohash of precision {@code n} identifies a grid cell; every point inside the cell encodes to the
+ * same string. Each additional character shrinks the cell by a factor of 32, from roughly 5 km at
+ * precision 5 to roughly 4.8 m x 4.8 m at precision 9.
+ */
+public final class GeoHash {
+
+    /**
+     * Maximum supported precision, the most characters that fit in a 64-bit interleaved value.
+     */
+    public static final int MAX_PRECISION = 12;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private GeoHash() {
+    }
+
+    /**
+     * Encodes a point to a geohash of the given precision.
+     *
+     * @param latitude  the latitude, between -90 and 90.
+     * @param longitude the longitude, between -180 and 180.
+     * @param precision the number of characters, between 1 and {@link #MAX_PRECISION}.
+     * @return the geohash of the cell containing the point.
+     */
+    public static String encode(double latitude, double longitude, int precision) {
+        if (precision < 1 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Geohash precision must be between 1 and " + MAX_PRECISION + ": " + precision);
+        }
+        double minLat = -90d;
+        double maxLat = 90d;
+        double minLng = -180d;
+        double maxLng = 180d;
+        char[] hash = new char[precision];
+        boolean evenBit = true;
+        int bit = 0;
+        int index = 0;
+        int position = 0;
+        while (position < precision) {
+            if (evenBit) {
+                double mid = (minLng + maxLng) / 2d;
+                if (longitude >= mid) {
+                    index = (index << 1) | 1;
+                    minLng = mid;
+                } else {
+                    index <<= 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2d;
+                if (latitude >= mid) {
+                    index = (index << 1) | 1;
+                    minLat = mid;
+                } else {
+                    index <<= 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash[position++] = BASE32[index];
+                bit = 0;
+                index = 0;
+            }
+        }
+        return new String(hash);
+    }
+}
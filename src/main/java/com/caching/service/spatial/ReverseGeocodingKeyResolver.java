@@ -0,0 +1,74 @@
+/**
+ * Service resolving the cache key used for a reverse geocoding request.
+ *
+ * <p>Two modes are supported, selected by {@code reverse-geocoding.key-mode}:
+ * <ul>
+ *   <li>{@code exact} (default): the key is the latitude/longitude pair itself, equal to the
+ *   {@code {#latitude,#longitude}} key of the "reverse-geocoding" cache.</li>
+ *   <li>{@code geohash}: the point is snapped to its geohash cell of precision
+ *   {@code reverse-geocoding.geohash-precision}, and the cell is the key. All points in a cell share one
+ *   cache entry, which bounds the key space and raises the hit rate for jittery coordinates.</li>
+ * </ul>
+ * The same key is used by the cache tracking service, the cache itself and refresh-ahead.
+ */
+package com.caching.service.spatial;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+
+@Slf4j
+@Service
+public class ReverseGeocodingKeyResolver {
+
+    /**
+     * Key mode, retrieved from application properties.
+     */
+    @Value("${reverse-geocoding.key-mode:exact}")
+    private String keyMode;
+
+    /**
+     * Geohash precision used in {@code geohash} mode, retrieved from application properties.
+     */
+    @Value("${reverse-geocoding.geohash-precision:8}")
+    private int geohashPrecision;
+
+    /**
+     * Whether keys are geohash cells rather than exact coordinates.
+     */
+    private boolean geohashMode;
+
+    /**
+     * Validates the configured mode and precision.
+     */
+    @PostConstruct
+    public void init() {
+        if ("geohash".equalsIgnoreCase(keyMode)) {
+            if (geohashPrecision < 1 || geohashPrecision > GeoHash.MAX_PRECISION) {
+                throw new IllegalStateException("reverse-geocoding.geohash-precision must be between 1 and "
+                        + GeoHash.MAX_PRECISION + ": " + geohashPrecision);
+            }
+            geohashMode = true;
+        } else if (!"exact".equalsIgnoreCase(keyMode)) {
+            throw new IllegalStateException("Unknown reverse-geocoding.key-mode: " + keyMode);
+        }
+        log.info("Reverse geocoding cache key mode: {}", geohashMode ? "geohash(" + geohashPrecision + ")" : "exact");
+    }
+
+    /**
+     * Resolves the cache key for the given coordinates.
+     *
+     * @param latitude  the latitude of the location.
+     * @param longitude the longitude of the location.
+     * @return the geohash cell in {@code geohash} mode, otherwise the latitude/longitude pair.
+     */
+    public Object resolveKey(Double latitude, Double longitude) {
+        if (geohashMode && latitude != null && longitude != null) {
+            return GeoHash.encode(latitude, longitude, geohashPrecision);
+        }
+        return Arrays.asList(latitude, longitude);
+    }
+}
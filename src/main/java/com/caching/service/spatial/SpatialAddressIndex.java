@@ -0,0 +1,228 @@
+/**
+ * Spatial index of resolved reverse geocoding results, used to answer lookups for points that lie close to
+ * a previously resolved point.
+ *
+ * <p>Resolved points are held in a {@link SpatialGrid} whose cell size matches the configured search
+ * radius, and the nearest point within the radius wins. Points older than the configured maximum age are
+ * ignored and purged by a scheduled task. A point resolved again for the same coordinates replaces the
+ * existing one, and once the index holds the configured maximum number of points, the oldest points are
+ * evicted to make room for new ones.
+ */
+package com.caching.service.spatial;
+
+import com.caching.dto.out.AddressDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Service
+public class SpatialAddressIndex {
+
+    /**
+     * Number of replaced points tolerated in the insertion order on top of twice the index size before they
+     * are dropped, so that small indexes are not compacted on every add.
+     */
+    private static final int MIN_COMPACTION_BACKLOG = 1024;
+
+    /**
+     * Number of points currently held in the index.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Points in the order they were added, oldest first. Points that were since replaced or purged are
+     * skipped when they reach the head, and replaced points are dropped early once they outnumber the points
+     * held in the index.
+     */
+    private final Queue<SpatialPoint> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of points in {@link #insertionOrder}, which does not track its size in constant time.
+     */
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * Whether a thread is dropping replaced points from {@link #insertionOrder}.
+     */
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    /**
+     * Whether nearest-neighbour lookups are enabled, retrieved from application properties.
+     */
+    @Value("${spatial-cache.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Radius in meters within which a resolved point answers a lookup, retrieved from application properties.
+     */
+    @Value("${spatial-cache.radius-meters:25}")
+    private double radiusMeters;
+
+    /**
+     * Maximum number of points held in the index, retrieved from application properties.
+     */
+    @Value("${spatial-cache.max-points:100000}")
+    private int maxPoints;
+
+    /**
+     * Maximum age in milliseconds of a point used to answer a lookup, retrieved from application properties.
+     */
+    @Value("${spatial-cache.max-age-ms:86400000}")
+    private long maxAgeMs;
+
+    /**
+     * Grid holding the resolved points.
+     */
+    private SpatialGrid<SpatialPoint> grid;
+
+    /**
+     * Creates the grid for the configured radius.
+     */
+    @PostConstruct
+    public void init() {
+        grid = new SpatialGrid<>(radiusMeters);
+    }
+
+    /**
+     * Returns whether nearest-neighbour lookups are enabled.
+     *
+     * @return {@code true} if the index is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the radius within which points are considered the same location.
+     *
+     * @return the radius in meters.
+     */
+    public double getRadiusMeters() {
+        return radiusMeters;
+    }
+
+    /**
+     * Finds the address of the nearest resolved point within the configured radius.
+     *
+     * @param latitude  the latitude of the query point.
+     * @param longitude the longitude of the query point.
+     * @return the {@link AddressDTO} of the nearest resolved point, or {@code null} if none is close enough.
+     */
+    public AddressDTO findNearby(double latitude, double longitude) {
+        if (!enabled || size.get() == 0) {
+            return null;
+        }
+        long oldestAllowed = System.currentTimeMillis() - maxAgeMs;
+        SpatialGrid.Match<SpatialPoint> match = grid.findNearest(latitude, longitude, point -> point.resolvedAt >= oldestAllowed);
+        if (match == null) {
+            return null;
+        }
+        SpatialPoint nearest = match.getValue();
+        log.info("Spatial cache hit for latitude: {} and longitude: {} within {} m of latitude: {} and longitude: {}",
+                latitude, longitude, Math.round(match.getDistanceMeters()), nearest.latitude, nearest.longitude);
+        return nearest.address;
+    }
+
+    /**
+     * Adds a point resolved by the upstream service to the index.
+     *
+     * @param latitude  the latitude of the resolved point.
+     * @param longitude the longitude of the resolved point.
+     * @param address   the address resolved for the point.
+     */
+    public void add(double latitude, double longitude, AddressDTO address) {
+        if (!enabled || address == null) {
+            return;
+        }
+        SpatialPoint point = new SpatialPoint(latitude, longitude, address, System.currentTimeMillis());
+        SpatialPoint replaced = grid.put(latitude, longitude, point);
+        if (replaced == null) {
+            size.incrementAndGet();
+        } else {
+            replaced.replaced = true;
+        }
+        insertionOrder.add(point);
+        queued.incrementAndGet();
+        while (size.get() > maxPoints) {
+            SpatialPoint oldest = insertionOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            queued.decrementAndGet();
+            if (grid.remove(oldest.latitude, oldest.longitude, oldest)) {
+                size.decrementAndGet();
+                log.debug("Spatial index full, evicted latitude: {} and longitude: {}", oldest.latitude, oldest.longitude);
+            }
+        }
+        if (queued.get() > 2 * size.get() + MIN_COMPACTION_BACKLOG) {
+            dropReplacedPoints();
+        }
+    }
+
+    /**
+     * Scheduled task removing points older than the maximum age.
+     */
+    @Scheduled(fixedDelayString = "${spatial-cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long oldestAllowed = System.currentTimeMillis() - maxAgeMs;
+        size.addAndGet(-grid.removeIf(point -> point.resolvedAt < oldestAllowed));
+        SpatialPoint oldest;
+        while ((oldest = insertionOrder.peek()) != null && oldest.resolvedAt < oldestAllowed) {
+            if (insertionOrder.remove(oldest)) {
+                queued.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Removes points that were replaced by a newer point at the same coordinates from the insertion order, so
+     * that coordinates resolved again and again do not grow it until the points reach the maximum age. Runs on
+     * one thread at a time; the others skip it.
+     */
+    private void dropReplacedPoints() {
+        if (!compacting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (Iterator<SpatialPoint> iterator = insertionOrder.iterator(); iterator.hasNext(); ) {
+                if (iterator.next().replaced) {
+                    iterator.remove();
+                    queued.decrementAndGet();
+                }
+            }
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    /**
+     * A resolved point and its address.
+     */
+    private static final class SpatialPoint {
+        private final double latitude;
+        private final double longitude;
+        private final AddressDTO address;
+        private final long resolvedAt;
+
+        /**
+         * Set once a newer point at the same coordinates has taken this point's place in the grid.
+         */
+        private volatile boolean replaced;
+
+        private SpatialPoint(double latitude, double longitude, AddressDTO address, long resolvedAt) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.address = address;
+            this.resolvedAt = resolvedAt;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.caching.service.spatial;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe uniform latitude/longitude grid for nearest-neighbour lookups within a fixed radius.
+ *
+ * <p>The cell size matches the radius, so a lookup only inspects the cell containing the query point and
+ * its neighbours; near the poles more longitude cells are inspected because a degree of longitude shrinks
+ * with the cosine of the latitude.
+ *
+ * <p>Cells are only modified inside {@link ConcurrentHashMap#compute} and its variants, so adding a point and
+ * dropping a cell that became empty are atomic with respect to each other and no point is ever added to a
+ * cell that is no longer mapped. Lookups read the copy-on-write cells without locking.
+ *
+ * @param <T> the type of the values attached to the points.
+ */
+public class SpatialGrid<T> {
+
+    /**
+     * Mean Earth radius in meters.
+     */
+    private static final double EARTH_RADIUS_METERS = 6_371_000d;
+
+    /**
+     * Length of one degree of latitude in meters.
+     */
+    private static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_METERS / 180d;
+
+    /**
+     * Upper bound on the number of longitude cells scanned on each side near the poles.
+     */
+    private static final int MAX_LONGITUDE_SPAN = 64;
+
+    private final Map<Long, List<Node<T>>> cells = new ConcurrentHashMap<>();
+    private final double radiusMeters;
+    private final double cellSizeDegrees;
+
+    /**
+     * Creates an empty grid.
+     *
+     * @param radiusMeters the search radius in meters.
+     */
+    public SpatialGrid(double radiusMeters) {
+        this.radiusMeters = radiusMeters;
+        this.cellSizeDegrees = radiusMeters / METERS_PER_DEGREE;
+    }
+
+    /**
+     * Adds a point to the grid, replacing the point at exactly the same coordinates if there is one.
+     *
+     * @param latitude  the latitude of the point.
+     * @param longitude the longitude of the point.
+     * @param value     the value attached to the point.
+     * @return the value of the replaced point, or {@code null} if the point is new.
+     */
+    public T put(double latitude, double longitude, T value) {
+        List<T> replaced = new ArrayList<>(1);
+        cells.compute(cellKey(latitudeCell(latitude), longitudeCell(longitude)), (key, cell) -> {
+            List<Node<T>> updated = cell != null ? cell : new CopyOnWriteArrayList<>();
+            for (int i = 0; i < updated.size(); i++) {
+                Node<T> node = updated.get(i);
+                if (node.latitude == latitude && node.longitude == longitude) {
+                    updated.set(i, new Node<>(latitude, longitude, value));
+                    replaced.add(node.value);
+                    return updated;
+                }
+            }
+            updated.add(new Node<>(latitude, longitude, value));
+            return updated;
+        });
+        return replaced.isEmpty() ? null : replaced.get(0);
+    }
+
+    /**
+     * Removes the point at the given coordinates if its value is the given instance.
+     *
+     * @param latitude  the latitude of the point.
+     * @param longitude the longitude of the point.
+     * @param value     the value attached to the point.
+     * @return {@code true} if the point was removed.
+     */
+    public boolean remove(double latitude, double longitude, T value) {
+        int[] removed = new int[1];
+        cells.computeIfPresent(cellKey(latitudeCell(latitude), longitudeCell(longitude)), (key, cell) -> {
+            if (cell.removeIf(node -> node.value == value)) {
+                removed[0]++;
+            }
+            return cell.isEmpty() ? null : cell;
+        });
+        return removed[0] > 0;
+    }
+
+    /**
+     * Finds the value of the nearest point within the radius whose value matches the filter.
+     *
+     * @param latitude  the latitude of the query point.
+     * @param longitude the longitude of the query point.
+     * @param filter    the condition a candidate's value must satisfy.
+     * @return the nearest match, or {@code null} if no matching point is within the radius.
+     */
+    public Match<T> findNearest(double latitude, double longitude, Predicate<T> filter) {
+        long latCell = latitudeCell(latitude);
+        long lngCell = longitudeCell(longitude);
+        int lngSpan = longitudeSpan(latitude);
+
+        Node<T> nearest = null;
+        double nearestDistance = radiusMeters;
+        for (long dLat = -1; dLat <= 1; dLat++) {
+            for (long dLng = -lngSpan; dLng <= lngSpan; dLng++) {
+                List<Node<T>> cell = cells.get(cellKey(latCell + dLat, lngCell + dLng));
+                if (cell == null) {
+                    continue;
+                }
+                for (Node<T> node : cell) {
+                    if (!filter.test(node.value)) {
+                        continue;
+                    }
+                    double distance = distanceMeters(latitude, longitude, node.latitude, node.longitude);
+                    if (distance <= nearestDistance) {
+                        nearest = node;
+                        nearestDistance = distance;
+                    }
+                }
+            }
+        }
+        return nearest != null ? new Match<>(nearest.value, nearestDistance) : null;
+    }
+
+    /**
+     * Removes every point whose value matches the condition, and any cells left empty.
+     *
+     * @param condition the removal condition.
+     * @return the number of points removed.
+     */
+    public int removeIf(Predicate<T> condition) {
+        int[] removed = new int[1];
+        for (Long cellKey : cells.keySet()) {
+            cells.computeIfPresent(cellKey, (key, cell) -> {
+                for (Node<T> node : cell) {
+                    if (condition.test(node.value) && cell.remove(node)) {
+                        removed[0]++;
+                    }
+                }
+                return cell.isEmpty() ? null : cell;
+            });
+        }
+        return removed[0];
+    }
+
+    private long latitudeCell(double latitude) {
+        return (long) Math.floor((latitude + 90d) / cellSizeDegrees);
+    }
+
+    private long longitudeCell(double longitude) {
+        return (long) Math.floor((longitude + 180d) / cellSizeDegrees);
+    }
+
+    private int longitudeSpan(double latitude) {
+        double cos = Math.cos(Math.toRadians(latitude));
+        if (cos <= 1d / MAX_LONGITUDE_SPAN) {
+            return MAX_LONGITUDE_SPAN;
+        }
+        return (int) Math.ceil(1d / cos);
+    }
+
+    private static long cellKey(long latCell, long lngCell) {
+        return (latCell << 32) | (lngCell & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Equirectangular distance approximation, accurate for the short distances used by the grid.
+     */
+    private static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double x = Math.toRadians(lng2 - lng1) * Math.cos(Math.toRadians((lat1 + lat2) / 2d));
+        double y = Math.toRadians(lat2 - lat1);
+        return Math.sqrt(x * x + y * y) * EARTH_RADIUS_METERS;
+    }
+
+    /**
+     * The value of the nearest matching point and its distance from the query point.
+     *
+     * @param <T> the type of the value.
+     */
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Match<T> {
+        private final T value;
+        private final double distanceMeters;
+    }
+
+    private static final class Node<T> {
+        private final double latitude;
+        private final double longitude;
+        private final T value;
+
+        private Node(double latitude, double longitude, T value) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.caching.service.cacheeviction;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessOrderTrackerTest {
+
+    @Test
+    void overflowRemovesKeysInLeastRecentlyUsedOrderAcrossStripes() {
+        AccessOrderTracker<String> tracker = new AccessOrderTracker<>();
+        for (int i = 0; i < 100; i++) {
+            tracker.touch("key-" + i, i);
+        }
+        tracker.touch("key-0", 100);
+        tracker.touch("key-50", 101);
+
+        for (int i = 1; i < 100; i++) {
+            if (i != 50) {
+                assertEquals("key-" + i, tracker.pollOverflow(2));
+            }
+        }
+        assertNull(tracker.pollOverflow(2));
+        assertEquals("key-0", tracker.pollOverflow(0));
+        assertEquals("key-50", tracker.pollOverflow(0));
+        assertTrue(tracker.isEmpty());
+    }
+
+    @Test
+    void onlyKeysIdleLongerThanTheExpirationAreExpired() {
+        AccessOrderTracker<String> tracker = new AccessOrderTracker<>();
+        tracker.touch("delhi", 1000);
+        tracker.touch("paris", 2000);
+        tracker.touch("rome", 3000);
+
+        assertEquals("delhi", tracker.pollExpired(500, 2000));
+        assertNull(tracker.pollExpired(500, 2000));
+        assertEquals("paris", tracker.pollExpired(500, 3000));
+        assertNull(tracker.pollExpired(500, 3000));
+        assertFalse(tracker.isEmpty());
+    }
+
+    @Test
+    void overweightRemovesKeysUntilTheTotalWeightFits() {
+        AccessOrderTracker<String> tracker = new AccessOrderTracker<>(key -> key.length());
+        tracker.touch("a very long address", 1);
+        tracker.touch("delhi", 2);
+        tracker.touch("delhi", 3);
+        tracker.touch("rome", 4);
+
+        assertEquals("a very long address", tracker.pollOverweight(10));
+        assertNull(tracker.pollOverweight(10));
+        assertEquals("delhi", tracker.pollOverweight(4));
+        assertNull(tracker.pollOverweight(4));
+    }
+
+    @Test
+    void concurrentTouchesKeepSizeAndWeightConsistent() throws Exception {
+        AccessOrderTracker<String> tracker = new AccessOrderTracker<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        tracker.touch("key-" + (i % 1000), System.currentTimeMillis());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertNull(tracker.pollOverflow(1000));
+        Set<String> removed = new HashSet<>();
+        String key;
+        while ((key = tracker.pollOverweight(0)) != null) {
+            removed.add(key);
+        }
+        assertEquals(1000, removed.size());
+        assertTrue(tracker.isEmpty());
+    }
+}
@@ -0,0 +1,65 @@
+package com.caching.service.cacheeviction;
+
+import com.caching.config.CacheSpecProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CacheTrackingServiceTest {
+
+    private Cache geocodingCache;
+    private Cache reverseGeocodingCache;
+    private CacheTrackingService cacheTrackingService;
+
+    @BeforeEach
+    void setUp() {
+        geocodingCache = mock(Cache.class);
+        reverseGeocodingCache = mock(Cache.class);
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache("geocoding")).thenReturn(geocodingCache);
+        when(cacheManager.getCache("reverse-geocoding")).thenReturn(reverseGeocodingCache);
+
+        CacheSpecProperties.CacheSpec spec = new CacheSpecProperties.CacheSpec();
+        spec.setMaximumSize(1L);
+        spec.setExpireAfterAccess(Duration.ofMillis(1));
+        CacheSpecProperties cacheSpecProperties = new CacheSpecProperties();
+        cacheSpecProperties.getCaches().put("reverse-geocoding", spec);
+
+        cacheTrackingService = new CacheTrackingService(cacheManager, cacheSpecProperties);
+        ReflectionTestUtils.setField(cacheTrackingService, "evictionBatchSize", 1000);
+    }
+
+    @Test
+    void cacheWithoutSpecificationIsTrimmedToTheDefaultSize() {
+        for (int i = 0; i < 12; i++) {
+            cacheTrackingService.updateGeocodingAccessTime("city-" + i);
+        }
+        cacheTrackingService.runEvictionPass();
+
+        verify(geocodingCache, times(2)).evict(any());
+        cacheTrackingService.runEvictionPass();
+        verify(geocodingCache, times(2)).evict(any());
+    }
+
+    @Test
+    void cacheWithSpecificationIsLeftToItsOwnPolicy() throws InterruptedException {
+        for (int i = 0; i < 12; i++) {
+            cacheTrackingService.updateReverseGeocodingAccessTime("cell-" + i);
+        }
+        Thread.sleep(10);
+        cacheTrackingService.runEvictionPass();
+
+        verify(reverseGeocodingCache, never()).evict(any());
+    }
+}
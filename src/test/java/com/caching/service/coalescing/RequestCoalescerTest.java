@@ -0,0 +1,177 @@
+package com.caching.service.coalescing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    private RequestCoalescer requestCoalescer;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        requestCoalescer = new RequestCoalescer();
+        ReflectionTestUtils.setField(requestCoalescer, "waitTimeoutMs", 60000L);
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentMissesMakeOneUpstreamCall() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> requestCoalescer.execute("geocoding", "delhi", () -> {
+            upstreamCalls.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return "Delhi";
+        }));
+        leaderStarted.await();
+
+        List<Future<String>> waiters = joinFrom(CALLERS - 1, () -> {
+            upstreamCalls.incrementAndGet();
+            return "duplicate";
+        });
+        release.countDown();
+
+        assertEquals("Delhi", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> waiter : waiters) {
+            assertEquals("Delhi", waiter.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void valueIsCachedBeforeTheFlightIsRemoved() throws Exception {
+        Map<String, String> cache = new ConcurrentHashMap<>();
+        CountDownLatch cached = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> requestCoalescer.execute("geocoding", "delhi", () -> {
+            cache.put("delhi", "Delhi");
+            cached.countDown();
+            await(release);
+            return "Delhi";
+        }));
+        cached.await();
+
+        AtomicInteger secondLoads = new AtomicInteger();
+        Future<String> late = executor.submit(() -> {
+            String hit = cache.get("delhi");
+            return hit != null ? hit : requestCoalescer.execute("geocoding", "delhi", () -> {
+                secondLoads.incrementAndGet();
+                return "duplicate";
+            });
+        });
+        Future<String> uncached = executor.submit(() -> requestCoalescer.execute("geocoding", "delhi", () -> {
+            secondLoads.incrementAndGet();
+            return "duplicate";
+        }));
+        assertEquals("Delhi", late.get(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        release.countDown();
+        assertEquals("Delhi", uncached.get(5, TimeUnit.SECONDS));
+        assertEquals("Delhi", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(0, secondLoads.get());
+
+        assertEquals("fresh", requestCoalescer.execute("geocoding", "delhi", () -> "fresh"));
+    }
+
+    @Test
+    void loaderThrowingAnErrorCompletesEveryWaiter() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> requestCoalescer.execute("geocoding", "delhi", () -> {
+            leaderStarted.countDown();
+            await(release);
+            throw new StackOverflowError();
+        }));
+        leaderStarted.await();
+
+        List<Future<String>> waiters = joinFrom(CALLERS - 1, () -> "duplicate");
+        release.countDown();
+
+        assertErrorWithin(leader);
+        for (Future<String> waiter : waiters) {
+            assertErrorWithin(waiter);
+        }
+        assertEquals("retried", requestCoalescer.execute("geocoding", "delhi", () -> "retried"));
+    }
+
+    @Test
+    void asyncLoaderThrowingAnErrorCompletesTheLeaderAndWaiters() throws Exception {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletableFuture<String> leader = requestCoalescer.executeAsync("geocoding", "delhi", () -> upstream);
+        CompletableFuture<String> waiter = requestCoalescer.executeAsync("geocoding", "delhi",
+                () -> CompletableFuture.completedFuture("duplicate"));
+        upstream.completeExceptionally(new StackOverflowError());
+
+        assertInstanceOf(StackOverflowError.class, assertThrows(ExecutionException.class, leader::get).getCause());
+        assertInstanceOf(StackOverflowError.class, assertThrows(ExecutionException.class, waiter::get).getCause());
+
+        CompletableFuture<String> thrown = requestCoalescer.executeAsync("geocoding", "paris", () -> {
+            throw new StackOverflowError();
+        });
+        assertInstanceOf(StackOverflowError.class, assertThrows(ExecutionException.class, thrown::get).getCause());
+        assertEquals("retried", requestCoalescer.executeAsync("geocoding", "paris",
+                () -> CompletableFuture.completedFuture("retried")).get());
+    }
+
+    /**
+     * Starts callers for the key and waits until they are all about to join the flight, which the test keeps
+     * open until it is released.
+     */
+    private List<Future<String>> joinFrom(int callers, Supplier<String> loader)
+            throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(callers);
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                return requestCoalescer.execute("geocoding", "delhi", loader);
+            }));
+        }
+        ready.await();
+        Thread.sleep(100);
+        return futures;
+    }
+
+    private static void assertErrorWithin(Future<String> future) {
+        ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, error.getCause());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
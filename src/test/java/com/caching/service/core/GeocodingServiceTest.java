@@ -0,0 +1,99 @@
+package com.caching.service.core;
+
+import com.caching.dto.out.LocationDTO;
+import com.caching.exception.InvalidAddressException;
+import com.caching.exception.UpstreamUnavailableException;
+import com.caching.service.cacheeviction.CacheTrackingService;
+import com.caching.service.cacherefresh.CacheRefreshService;
+import com.caching.service.negativecache.FailedAddressFilter;
+import com.caching.service.negativecache.NegativeResultCache;
+import com.caching.service.normalization.AddressNormalizer;
+import com.caching.service.spatial.ReverseGeocodingKeyResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class GeocodingServiceTest {
+
+    private GeocodingServiceCacheHelper geocodingServiceCacheHelper;
+    private NegativeResultCache negativeResultCache;
+    private FailedAddressFilter failedAddressFilter;
+    private GeocodingService geocodingService;
+
+    @BeforeEach
+    void setUp() {
+        geocodingServiceCacheHelper = mock(GeocodingServiceCacheHelper.class);
+        negativeResultCache = mock(NegativeResultCache.class);
+        failedAddressFilter = mock(FailedAddressFilter.class);
+        geocodingService = new GeocodingService(mock(CacheTrackingService.class), geocodingServiceCacheHelper,
+                mock(CacheRefreshService.class), new AddressNormalizer(), mock(ReverseGeocodingKeyResolver.class),
+                negativeResultCache, failedAddressFilter);
+    }
+
+    @Test
+    void normalizedAddressIsTheKeyAndCallerAddressIsTheQuery() {
+        LocationDTO location = new LocationDTO(41.76, -72.67);
+        when(geocodingServiceCacheHelper.getGeocoding("hartford ct", "Hartford, CT")).thenReturn(location);
+
+        assertSame(location, geocodingService.getGeocoding("Hartford, CT"));
+        verify(failedAddressFilter).rejectIfFailed("hartford ct");
+        verify(negativeResultCache).rejectIfKnown("geocoding", "hartford ct");
+    }
+
+    @Test
+    void failuresAreRecordedUnderTheNormalizedKey() {
+        InvalidAddressException failure = new InvalidAddressException("No results found for the given address: Nowhere,");
+        when(geocodingServiceCacheHelper.getGeocoding("nowhere", "Nowhere,")).thenThrow(failure);
+
+        assertThrows(InvalidAddressException.class, () -> geocodingService.getGeocoding("Nowhere,"));
+        verify(negativeResultCache).record("geocoding", "nowhere", failure);
+        verify(failedAddressFilter).record("nowhere", failure);
+    }
+
+    @Test
+    void openCircuitIsAnsweredWithTheStaleEntryFromOutsideTheCachedLookup() {
+        UpstreamUnavailableException open = new UpstreamUnavailableException("Provider unavailable");
+        LocationDTO stale = new LocationDTO(41.76, -72.67);
+        when(geocodingServiceCacheHelper.getGeocoding("hartford ct", "Hartford, CT")).thenThrow(open);
+        when(geocodingServiceCacheHelper.getStale("geocoding", "hartford ct", LocationDTO.class, open)).thenReturn(stale);
+
+        assertSame(stale, geocodingService.getGeocoding("Hartford, CT"));
+        verify(negativeResultCache, never()).record(anyString(), any(), any());
+    }
+
+    @Test
+    void asyncLookupUsesTheSameKeyAndQuery() throws Exception {
+        LocationDTO location = new LocationDTO(28.6, 77.2);
+        when(geocodingServiceCacheHelper.getGeocodingAsync("new delhi", "NEW  Delhi"))
+                .thenReturn(CompletableFuture.completedFuture(location));
+
+        assertSame(location, geocodingService.getGeocodingAsync("NEW  Delhi").get());
+        verify(negativeResultCache).rejectIfKnown("geocoding", "new delhi");
+    }
+
+    @Test
+    void addressWithNothingLeftAfterNormalizationIsRejected() {
+        assertThrows(InvalidAddressException.class, () -> geocodingService.getGeocoding(" ?! "));
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> geocodingService.getGeocodingAsync(" ?! ").get());
+        assertInstanceOf(InvalidAddressException.class, error.getCause());
+        verify(geocodingServiceCacheHelper, never()).getGeocoding(anyString(), anyString());
+        verify(geocodingServiceCacheHelper, never()).getGeocodingAsync(anyString(), anyString());
+        verify(negativeResultCache, never()).record(eq("geocoding"), any(), any());
+        verifyNoInteractions(failedAddressFilter);
+    }
+}
@@ -0,0 +1,73 @@
+package com.caching.service.negativecache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RotatingBloomFilterTest {
+
+    private static final int SLICES = 4;
+
+    private static final int INSERTIONS = 10000;
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void insertedValuesAreAlwaysFound() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(SLICES, INSERTIONS, FALSE_POSITIVE_RATE);
+        for (int slice = 0; slice < SLICES; slice++) {
+            for (int i = 0; i < INSERTIONS; i++) {
+                filter.put(address(slice, i));
+            }
+            for (int older = 0; older <= slice; older++) {
+                for (int i = 0; i < INSERTIONS; i++) {
+                    assertTrue(filter.mightContain(address(older, i)), address(older, i));
+                }
+            }
+            if (slice < SLICES - 1) {
+                filter.rotate();
+            }
+        }
+    }
+
+    @Test
+    void valueIsForgottenAfterSlicesRotations() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(SLICES, INSERTIONS, FALSE_POSITIVE_RATE);
+        filter.put("1 nowhere street");
+        for (int rotation = 1; rotation < SLICES; rotation++) {
+            filter.rotate();
+            assertTrue(filter.mightContain("1 nowhere street"), "forgotten after " + rotation + " rotations");
+        }
+        filter.rotate();
+        assertFalse(filter.mightContain("1 nowhere street"));
+    }
+
+    @Test
+    void falsePositiveRateOfFullSlicesStaysNearTheTarget() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(SLICES, INSERTIONS, FALSE_POSITIVE_RATE);
+        for (int slice = 0; slice < SLICES; slice++) {
+            if (slice > 0) {
+                filter.rotate();
+            }
+            for (int i = 0; i < INSERTIONS; i++) {
+                filter.put(address(slice, i));
+            }
+        }
+
+        int lookups = 100000;
+        int falsePositives = 0;
+        for (int i = 0; i < lookups; i++) {
+            if (filter.mightContain(address(-1, i))) {
+                falsePositives++;
+            }
+        }
+        double rate = falsePositives / (double) lookups;
+        assertTrue(rate <= FALSE_POSITIVE_RATE * 1.5, "false positive rate " + rate);
+        assertTrue(rate >= FALSE_POSITIVE_RATE / 4, "false positive rate " + rate + " suggests an oversized filter");
+    }
+
+    private static String address(int slice, int i) {
+        return i + " main street, town " + slice;
+    }
+}
@@ -0,0 +1,45 @@
+package com.caching.service.normalization;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AddressNormalizerTest {
+
+    private final AddressNormalizer addressNormalizer = new AddressNormalizer();
+
+    @Test
+    void equivalentSpellingsShareOneKey() {
+        assertEquals("new delhi", addressNormalizer.normalize("New Delhi"));
+        assertEquals("new delhi", addressNormalizer.normalize("  new   delhi "));
+        assertEquals("new delhi", addressNormalizer.normalize("NEW DELHI,"));
+    }
+
+    @Test
+    void unambiguousAbbreviationsAreExpanded() {
+        assertEquals("10 main road apartment 4", addressNormalizer.normalize("10 Main Rd., Apt 4"));
+        assertEquals("sunset boulevard", addressNormalizer.normalize("Sunset Blvd"));
+    }
+
+    @Test
+    void ambiguousAbbreviationsAreKept() {
+        assertEquals("hartford ct", addressNormalizer.normalize("Hartford, CT"));
+        assertEquals("helena mt", addressNormalizer.normalize("Helena, MT"));
+        assertEquals("st louis", addressNormalizer.normalize("St. Louis"));
+        assertEquals("ft worth", addressNormalizer.normalize("Ft Worth"));
+        assertEquals("5 oak pl", addressNormalizer.normalize("5 Oak Pl"));
+    }
+
+    @Test
+    void abbreviationsAreOnlyExpandedAsWholeTokens() {
+        assertEquals("broadway", addressNormalizer.normalize("Broadway"));
+        assertEquals("avenida paulista", addressNormalizer.normalize("Avenida Paulista"));
+    }
+
+    @Test
+    void punctuationOnlyAndNullAddresses() {
+        assertEquals("", addressNormalizer.normalize(" !?, "));
+        assertNull(addressNormalizer.normalize(null));
+    }
+}
@@ -0,0 +1,204 @@
+package com.caching.service.offheap;
+
+import com.caching.dto.out.AddressDTO;
+import com.caching.dto.out.LocationDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapCacheTest {
+
+    /**
+     * Smallest cache: 16 segments of 4 KB, each indexing at most 192 entries.
+     */
+    private static final long SMALL_CAPACITY = 64 * 1024;
+
+    private static final long LARGE_CAPACITY = 16 * 1024 * 1024;
+
+    @Test
+    void storesReplacesAndEvictsEntries() {
+        OffHeapCache cache = new OffHeapCache("geocoding", LARGE_CAPACITY, null);
+        cache.put("delhi", new LocationDTO(28.6, 77.2));
+        cache.put(List.of(48.8, 2.3), new AddressDTO("Paris"));
+        cache.put("delhi", new LocationDTO(28.7, 77.1));
+
+        assertLatitude(cache, "delhi", 28.7);
+        assertEquals("Paris", cache.get(List.of(48.8, 2.3), AddressDTO.class).getAddress());
+        assertNotNull(cache.getWriteTime("delhi"));
+        assertEquals(2, cache.size());
+
+        cache.evict("delhi");
+        assertNull(cache.get("delhi"));
+        assertNull(cache.getWriteTime("delhi"));
+        assertEquals(1, cache.size());
+
+        cache.clear();
+        assertNull(cache.get(List.of(48.8, 2.3)));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void rejectsUnsupportedEntries() {
+        OffHeapCache cache = new OffHeapCache("geocoding", LARGE_CAPACITY, null);
+        assertThrows(IllegalArgumentException.class, () -> cache.put("delhi", null));
+        assertThrows(IllegalArgumentException.class, () -> cache.put(42, new LocationDTO(1, 1)));
+        assertNull(cache.get(42));
+    }
+
+    @Test
+    void expiredEntriesAreAbsent() throws InterruptedException {
+        OffHeapCache cache = new OffHeapCache("geocoding", LARGE_CAPACITY, Duration.ofMillis(1));
+        cache.put("delhi", new LocationDTO(28.6, 77.2));
+        Thread.sleep(10);
+        assertNull(cache.get("delhi"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void loaderIsOnlyCalledOnAMiss() {
+        OffHeapCache cache = new OffHeapCache("geocoding", LARGE_CAPACITY, null);
+        assertEquals(28.6, cache.get("delhi", () -> new LocationDTO(28.6, 77.2)).getLatitude());
+        assertEquals(28.6, cache.get("delhi", () -> new LocationDTO(0, 0)).getLatitude());
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get("paris", () -> {
+            throw new IllegalStateException("upstream down");
+        }));
+    }
+
+    @Test
+    void replacingOneKeyWrapsTheRingWithoutLosingIt() {
+        OffHeapCache cache = new OffHeapCache("geocoding", SMALL_CAPACITY, null);
+        cache.put("AaAa", new LocationDTO(48.8, 2.3));
+        for (int i = 0; i < 1000; i++) {
+            cache.put("BBBB", new LocationDTO(i, 77.2));
+            assertLatitude(cache, "BBBB", i);
+        }
+        assertEquals(1, cache.size());
+        assertNull(cache.get("AaAa"));
+    }
+
+    @Test
+    void fullSegmentsEvictTheOldestEntries() {
+        OffHeapCache cache = new OffHeapCache("geocoding", SMALL_CAPACITY, null);
+        int count = 20000;
+        for (int i = 0; i < count; i++) {
+            cache.put("city-" + i, new LocationDTO(i, i));
+        }
+        assertTrue(cache.size() <= 16 * 192, "size " + cache.size());
+        for (int i = count - 20; i < count; i++) {
+            assertLatitude(cache, "city-" + i, i);
+        }
+        for (int i = 0; i < 20; i++) {
+            assertNull(cache.get("city-" + i));
+        }
+        for (int i = 0; i < count; i++) {
+            LocationDTO location = cache.get("city-" + i, LocationDTO.class);
+            if (location != null) {
+                assertEquals(i, location.getLatitude());
+            }
+        }
+    }
+
+    @Test
+    void collidingKeysSurviveDeletesAndReinserts() {
+        List<String> keys = collidingKeys(4);
+        OffHeapCache cache = new OffHeapCache("geocoding", LARGE_CAPACITY, null);
+        for (int i = 0; i < keys.size(); i++) {
+            cache.put(keys.get(i), new LocationDTO(i, 0));
+        }
+
+        cache.evict(keys.get(1));
+        cache.evict(keys.get(0));
+        assertNull(cache.get(keys.get(0)));
+        assertNull(cache.get(keys.get(1)));
+        for (int i = 2; i < keys.size(); i++) {
+            assertLatitude(cache, keys.get(i), i);
+        }
+
+        cache.put(keys.get(1), new LocationDTO(-1, 0));
+        cache.put(keys.get(0), new LocationDTO(-2, 0));
+        assertLatitude(cache, keys.get(1), -1);
+        assertLatitude(cache, keys.get(0), -2);
+        assertEquals(keys.size(), cache.size());
+    }
+
+    @Test
+    void collidingKeysMatchAReferenceMapUnderRandomOperations() {
+        List<String> keys = collidingKeys(8);
+        OffHeapCache cache = new OffHeapCache("geocoding", LARGE_CAPACITY, null);
+        Map<String, Double> reference = new HashMap<>();
+        Random random = new Random(42);
+        for (int operation = 0; operation < 20000; operation++) {
+            String key = keys.get(random.nextInt(keys.size()));
+            if (random.nextInt(3) == 0) {
+                cache.evict(key);
+                reference.remove(key);
+            } else {
+                double latitude = random.nextInt(90);
+                cache.put(key, new LocationDTO(latitude, 0));
+                reference.put(key, latitude);
+            }
+        }
+        for (String key : keys) {
+            LocationDTO location = cache.get(key, LocationDTO.class);
+            assertEquals(reference.get(key), location == null ? null : location.getLatitude(), key);
+        }
+        assertEquals(reference.size(), cache.size());
+    }
+
+    @Test
+    void collidingKeysAreEvictedOldestFirst() {
+        List<String> keys = collidingKeys(8);
+        OffHeapCache cache = new OffHeapCache("geocoding", SMALL_CAPACITY, null);
+        for (int i = 0; i < keys.size(); i++) {
+            cache.put(keys.get(i), new LocationDTO(i, 0));
+        }
+        assertNull(cache.get(keys.get(0)));
+        boolean evicted = true;
+        for (int i = 0; i < keys.size(); i++) {
+            LocationDTO location = cache.get(keys.get(i), LocationDTO.class);
+            if (location != null) {
+                assertEquals(i, location.getLatitude());
+                evicted = false;
+            } else {
+                assertTrue(evicted, "entry " + i + " evicted after a newer one was kept");
+            }
+        }
+        assertLatitude(cache, keys.get(keys.size() - 1), keys.size() - 1);
+    }
+
+    /**
+     * Returns all strings made of {@code blocks} blocks of "Aa" or "BB". Their UTF-8 encodings have the same
+     * length and the same {@link java.util.Arrays#hashCode(byte[])}, so they share a segment and a probe run.
+     */
+    private static List<String> collidingKeys(int blocks) {
+        List<String> keys = new ArrayList<>();
+        keys.add("");
+        for (int block = 0; block < blocks; block++) {
+            List<String> longer = new ArrayList<>();
+            for (String key : keys) {
+                longer.add(key + "Aa");
+                longer.add(key + "BB");
+            }
+            keys = longer;
+        }
+        return keys;
+    }
+
+    private static void assertLatitude(OffHeapCache cache, Object key, double latitude) {
+        LocationDTO location = cache.get(key, LocationDTO.class);
+        assertNotNull(location, "missing " + key);
+        assertEquals(latitude, location.getLatitude());
+    }
+}
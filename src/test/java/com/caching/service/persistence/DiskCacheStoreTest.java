@@ -0,0 +1,155 @@
+package com.caching.service.persistence;
+
+import com.caching.dto.out.LocationDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiskCacheStoreTest {
+
+    private static final long MAX_AGE_MS = 60000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopenedStoreServesTheLatestRecordOfEachKey() throws IOException {
+        Path path = directory.resolve("geocoding.dat");
+        long now = System.currentTimeMillis();
+        try (DiskCacheStore store = open(path, 4096)) {
+            store.put("delhi", new LocationDTO(28.6, 77.2), now, MAX_AGE_MS);
+            store.put("paris", new LocationDTO(48.8, 2.3), now, MAX_AGE_MS);
+            store.put("delhi", new LocationDTO(28.7, 77.1), now + 1, MAX_AGE_MS);
+        }
+        try (DiskCacheStore store = open(path, 4096)) {
+            assertLocation(store, "delhi", 28.7);
+            assertLocation(store, "paris", 48.8);
+            assertEquals(now + 1, store.get("delhi").getWriteTime());
+            assertNull(store.get("rome"));
+        }
+    }
+
+    @Test
+    void compactionKeepsOnlyTheLatestRecordOfLiveKeys() throws IOException {
+        Path path = directory.resolve("geocoding.dat");
+        int capacity = 512;
+        long now = System.currentTimeMillis();
+        try (DiskCacheStore store = open(path, capacity)) {
+            for (int round = 0; round < 50; round++) {
+                for (int key = 0; key < 3; key++) {
+                    store.put("city-" + key, new LocationDTO(round, key), now, MAX_AGE_MS);
+                }
+            }
+            for (int key = 0; key < 3; key++) {
+                assertLocation(store, "city-" + key, 49);
+            }
+            assertFalse(Files.exists(path.resolveSibling("geocoding.dat.compact")));
+        }
+        try (DiskCacheStore store = open(path, capacity)) {
+            for (int key = 0; key < 3; key++) {
+                assertLocation(store, "city-" + key, 49);
+            }
+        }
+    }
+
+    @Test
+    void compactionDropsExpiredEntries() throws IOException {
+        long now = System.currentTimeMillis();
+        try (DiskCacheStore store = open(directory.resolve("geocoding.dat"), 512)) {
+            store.put("stale", new LocationDTO(1, 1), now - 2 * MAX_AGE_MS, MAX_AGE_MS);
+            store.put("fresh", new LocationDTO(2, 2), now, MAX_AGE_MS);
+            for (int round = 0; round < 50; round++) {
+                store.put("busy", new LocationDTO(round, 0), now, MAX_AGE_MS);
+            }
+            assertNull(store.get("stale"));
+            assertLocation(store, "fresh", 2);
+            assertLocation(store, "busy", 49);
+        }
+    }
+
+    @Test
+    void entryLargerThanTheStoreIsDropped() throws IOException {
+        long now = System.currentTimeMillis();
+        try (DiskCacheStore store = open(directory.resolve("geocoding.dat"), 128)) {
+            store.put("delhi", new LocationDTO(28.6, 77.2), now, MAX_AGE_MS);
+            store.put("a very long address that does not fit into the store at all", new LocationDTO(1, 1), now, MAX_AGE_MS);
+            assertNull(store.get("a very long address that does not fit into the store at all"));
+            assertLocation(store, "delhi", 28.6);
+        }
+    }
+
+    @Test
+    void recentEntriesAreReturnedOldestFirst() throws IOException {
+        long now = System.currentTimeMillis();
+        try (DiskCacheStore store = open(directory.resolve("geocoding.dat"), 4096)) {
+            store.put("delhi", new LocationDTO(28.6, 77.2), now, MAX_AGE_MS);
+            store.put("paris", new LocationDTO(48.8, 2.3), now, MAX_AGE_MS);
+            store.put("rome", new LocationDTO(41.9, 12.5), now, MAX_AGE_MS);
+            store.put("delhi", new LocationDTO(28.7, 77.1), now, MAX_AGE_MS);
+
+            List<Object> keys = store.recentEntries(2).stream()
+                    .map(CacheEntryCodec.Entry::getKey)
+                    .collect(Collectors.toList());
+            assertEquals(List.of("rome", "delhi"), keys);
+        }
+    }
+
+    @Test
+    void fullStoreOfFreshEntriesEvictsTheOldest() throws IOException {
+        long now = System.currentTimeMillis();
+        try (DiskCacheStore store = open(directory.resolve("geocoding.dat"), 512)) {
+            for (int key = 0; key < 100; key++) {
+                assertTrue(store.put("city-" + key, new LocationDTO(key, 0), now, MAX_AGE_MS));
+            }
+            assertNull(store.get("city-0"));
+            assertLocation(store, "city-98", 98);
+            assertLocation(store, "city-99", 99);
+        }
+    }
+
+    @Test
+    void putsAreSkippedWhileCompactionIsPending() throws IOException {
+        long now = System.currentTimeMillis();
+        List<Runnable> compactions = new ArrayList<>();
+        try (DiskCacheStore store = new DiskCacheStore(directory.resolve("geocoding.dat"), 512, 50, compactions::add)) {
+            int key = 0;
+            while (store.put("city-" + key, new LocationDTO(key, 0), now, MAX_AGE_MS)) {
+                key++;
+            }
+            assertEquals(1, compactions.size());
+            assertFalse(store.put("paris", new LocationDTO(48.8, 2.3), now, MAX_AGE_MS));
+            assertLocation(store, "city-0", 0);
+
+            compactions.get(0).run();
+            assertTrue(store.put("paris", new LocationDTO(48.8, 2.3), now, MAX_AGE_MS));
+            assertNull(store.get("city-0"));
+            assertLocation(store, "city-" + (key - 1), key - 1);
+            assertLocation(store, "paris", 48.8);
+            assertEquals(1, compactions.size());
+        }
+    }
+
+    /**
+     * Opens a store that compacts on the calling thread down to half its capacity.
+     */
+    private DiskCacheStore open(Path path, int capacity) throws IOException {
+        return new DiskCacheStore(path, capacity, 50, Runnable::run);
+    }
+
+    private static void assertLocation(DiskCacheStore store, String key, double latitude) {
+        CacheEntryCodec.Entry entry = store.get(key);
+        assertEquals(key, entry.getKey());
+        assertEquals(latitude, ((LocationDTO) entry.getValue()).getLatitude());
+    }
+}
@@ -0,0 +1,205 @@
+package com.caching.service.resilience;
+
+import com.caching.exception.UpstreamUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamCircuitBreakerTest {
+
+    private static final Runnable NO_ADMISSION = () -> {
+    };
+
+    private UpstreamCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new UpstreamCircuitBreaker("test");
+        ReflectionTestUtils.setField(circuitBreaker, "enabled", true);
+        ReflectionTestUtils.setField(circuitBreaker, "windowSize", 10);
+        ReflectionTestUtils.setField(circuitBreaker, "minimumCalls", 4);
+        ReflectionTestUtils.setField(circuitBreaker, "failureRateThreshold", 50);
+        ReflectionTestUtils.setField(circuitBreaker, "slowCallThresholdMs", 60000L);
+        ReflectionTestUtils.setField(circuitBreaker, "slowCallRateThreshold", 80);
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMs", 60000L);
+        ReflectionTestUtils.setField(circuitBreaker, "halfOpenProbes", 2);
+        circuitBreaker.init();
+    }
+
+    @Test
+    void staysClosedUntilMinimumCallsAreRecorded() {
+        fail(3);
+        assertEquals(UpstreamCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void opensAtFailureRateAndFailsFast() {
+        succeed(2);
+        fail(2);
+        assertEquals(UpstreamCircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(UpstreamUnavailableException.class,
+                () -> circuitBreaker.execute(NO_ADMISSION, calls::incrementAndGet));
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void clientErrorsDoNotCountAsFailures() {
+        for (int i = 0; i < 10; i++) {
+            assertThrows(HttpClientErrorException.class, () -> circuitBreaker.execute(NO_ADMISSION, () -> {
+                throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+            }));
+        }
+        assertEquals(UpstreamCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void oldOutcomesLeaveTheWindow() {
+        ReflectionTestUtils.setField(circuitBreaker, "minimumCalls", 10);
+        fail(4);
+        succeed(6);
+        succeed(4);
+        fail(4);
+        assertEquals(UpstreamCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        fail(1);
+        assertEquals(UpstreamCircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void opensAtSlowCallRate() {
+        ReflectionTestUtils.setField(circuitBreaker, "slowCallThresholdMs", -1L);
+        succeed(4);
+        assertEquals(UpstreamCircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void closesAfterSuccessfulProbes() {
+        open();
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMs", 0L);
+
+        succeed(1);
+        assertEquals(UpstreamCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        succeed(1);
+        assertEquals(UpstreamCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        fail(3);
+        assertEquals(UpstreamCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void reopensWhenAProbeFails() {
+        open();
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMs", 0L);
+        succeed(1);
+        fail(1);
+        assertEquals(UpstreamCircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void limitsProbesInFlightAndIgnoresOutcomesFromEarlierStates() throws Exception {
+        CompletableFuture<String> admittedWhileClosed = new CompletableFuture<>();
+        CompletableFuture<String> pendingWhileClosed = circuitBreaker.executeAsync(
+                () -> CompletableFuture.completedFuture(null), () -> admittedWhileClosed);
+        open();
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMs", 0L);
+
+        CompletableFuture<String> firstProbe = new CompletableFuture<>();
+        CompletableFuture<String> secondProbe = new CompletableFuture<>();
+        CompletableFuture<String> first = circuitBreaker.executeAsync(
+                () -> CompletableFuture.completedFuture(null), () -> firstProbe);
+        CompletableFuture<String> second = circuitBreaker.executeAsync(
+                () -> CompletableFuture.completedFuture(null), () -> secondProbe);
+        CompletableFuture<String> third = circuitBreaker.executeAsync(
+                () -> CompletableFuture.completedFuture(null), () -> CompletableFuture.completedFuture("third"));
+        ExecutionException rejected = assertThrows(ExecutionException.class, third::get);
+        assertInstanceOf(UpstreamUnavailableException.class, rejected.getCause());
+
+        admittedWhileClosed.completeExceptionally(new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+        assertTrue(pendingWhileClosed.isCompletedExceptionally());
+        assertEquals(UpstreamCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+
+        firstProbe.complete("first");
+        secondProbe.complete("second");
+        assertEquals("first", first.get());
+        assertEquals("second", second.get());
+        assertEquals(UpstreamCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void failedAdmissionGivesBackTheProbe() {
+        open();
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMs", 0L);
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IllegalStateException.class, () -> circuitBreaker.execute(() -> {
+                throw new IllegalStateException("no token");
+            }, () -> "unreached"));
+        }
+        assertEquals(UpstreamCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        succeed(2);
+        assertEquals(UpstreamCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void errorsGiveBackTheProbeWithoutRecordingAnOutcome() throws Exception {
+        open();
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMs", 0L);
+        for (int i = 0; i < 3; i++) {
+            assertThrows(StackOverflowError.class, () -> circuitBreaker.execute(NO_ADMISSION, () -> {
+                throw new StackOverflowError();
+            }));
+            assertThrows(AssertionError.class, () -> circuitBreaker.execute(() -> {
+                throw new AssertionError("no token");
+            }, () -> "unreached"));
+        }
+        CompletableFuture<String> failed = circuitBreaker.executeAsync(
+                () -> CompletableFuture.completedFuture(null), () -> CompletableFuture.failedFuture(new OutOfMemoryError()));
+        ExecutionException error = assertThrows(ExecutionException.class, failed::get);
+        assertInstanceOf(OutOfMemoryError.class, error.getCause());
+        assertEquals(UpstreamCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+
+        succeed(1);
+        assertEquals(UpstreamCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        succeed(1);
+        assertEquals(UpstreamCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void disabledBreakerNeverOpens() {
+        ReflectionTestUtils.setField(circuitBreaker, "enabled", false);
+        fail(10);
+        assertEquals(UpstreamCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals("ok", circuitBreaker.execute(NO_ADMISSION, () -> "ok"));
+    }
+
+    private void open() {
+        fail(4);
+        assertEquals(UpstreamCircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertEquals("ok", circuitBreaker.execute(NO_ADMISSION, () -> "ok"));
+        }
+    }
+
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertThrows(HttpServerErrorException.class, () -> circuitBreaker.execute(NO_ADMISSION, () -> {
+                throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+            }));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.caching.service.resilience;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UpstreamRequestHedgerTest {
+
+    private static final long PROVIDER_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private UpstreamRequestHedger hedger;
+
+    @BeforeEach
+    void setUp() {
+        hedger = new UpstreamRequestHedger();
+        ReflectionTestUtils.setField(hedger, "enabled", true);
+        ReflectionTestUtils.setField(hedger, "percentile", 95d);
+        ReflectionTestUtils.setField(hedger, "minDelayMs", 1L);
+        ReflectionTestUtils.setField(hedger, "sampleSize", 10);
+        ReflectionTestUtils.setField(hedger, "minSamples", 1);
+        ReflectionTestUtils.setField(hedger, "maxFractionPercent", 100d);
+        ReflectionTestUtils.setField(hedger, "poolSize", 4);
+        hedger.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hedger.stop();
+    }
+
+    @Test
+    void onlyTheReportedProviderLatencyIsRecorded() {
+        assertEquals("ok", hedger.execute(listener -> {
+            sleep(100);
+            listener.onSent();
+            listener.onSucceeded(PROVIDER_LATENCY_NANOS);
+            return "ok";
+        }));
+        assertEquals(PROVIDER_LATENCY_NANOS, hedgeDelayNanos());
+    }
+
+    @Test
+    void callStillQueuedForATokenIsNotHedged() {
+        prime();
+        AtomicInteger attempts = new AtomicInteger();
+        assertEquals("ok", hedger.execute(listener -> {
+            attempts.incrementAndGet();
+            sleep(100);
+            listener.onSent();
+            listener.onSucceeded(PROVIDER_LATENCY_NANOS);
+            return "ok";
+        }));
+        assertEquals(1, attempts.get());
+        assertEquals(0, hedger.getHedgesSent());
+    }
+
+    @Test
+    void slowCallAtTheProviderIsHedged() {
+        prime();
+        AtomicInteger attempts = new AtomicInteger();
+        assertEquals("hedge", hedger.execute(listener -> {
+            boolean primary = attempts.incrementAndGet() == 1;
+            listener.onSent();
+            sleep(primary ? 500 : 0);
+            return primary ? "primary" : "hedge";
+        }));
+        assertEquals(1, hedger.getHedgesSent());
+    }
+
+    @Test
+    void asyncCallStillQueuedForATokenIsNotHedged() throws Exception {
+        prime();
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<String> result = hedger.executeAsync(listener -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.supplyAsync(() -> {
+                listener.onSent();
+                return "ok";
+            }, CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS));
+        });
+        assertEquals("ok", result.get());
+        assertEquals(1, attempts.get());
+        assertEquals(0, hedger.getHedgesSent());
+    }
+
+    @Test
+    void slowAsyncCallAtTheProviderIsHedged() throws Exception {
+        prime();
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<String> result = hedger.executeAsync(listener -> {
+            listener.onSent();
+            return attempts.incrementAndGet() == 1
+                    ? CompletableFuture.supplyAsync(() -> "primary", CompletableFuture.delayedExecutor(500, TimeUnit.MILLISECONDS))
+                    : CompletableFuture.completedFuture("hedge");
+        });
+        assertEquals("hedge", result.get());
+        assertEquals(1, hedger.getHedgesSent());
+    }
+
+    /**
+     * Records one provider latency so that hedging starts, and funds the budget for one hedge.
+     */
+    private void prime() {
+        hedger.execute(listener -> {
+            listener.onSent();
+            listener.onSucceeded(PROVIDER_LATENCY_NANOS);
+            return "ok";
+        });
+    }
+
+    private long hedgeDelayNanos() {
+        return (Long) ReflectionTestUtils.invokeMethod(hedger, "hedgeDelayNanos");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
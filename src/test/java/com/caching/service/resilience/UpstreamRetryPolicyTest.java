@@ -0,0 +1,163 @@
+package com.caching.service.resilience;
+
+import com.caching.exception.InvalidAddressException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamRetryPolicyTest {
+
+    private UpstreamRetryPolicy retryPolicy;
+
+    @BeforeEach
+    void setUp() {
+        retryPolicy = new UpstreamRetryPolicy();
+        ReflectionTestUtils.setField(retryPolicy, "enabled", true);
+        ReflectionTestUtils.setField(retryPolicy, "maxAttempts", 2);
+        ReflectionTestUtils.setField(retryPolicy, "initialBackoffMs", 0L);
+        ReflectionTestUtils.setField(retryPolicy, "maxBackoffMs", 0L);
+        ReflectionTestUtils.setField(retryPolicy, "multiplier", 2.0);
+        ReflectionTestUtils.setField(retryPolicy, "budgetPercent", 10.0);
+        ReflectionTestUtils.setField(retryPolicy, "budgetMaxTokens", 2.0);
+        retryPolicy.init();
+    }
+
+    @Test
+    void retriesServerErrorsUntilAnAttemptSucceeds() {
+        ReflectionTestUtils.setField(retryPolicy, "maxAttempts", 3);
+        AtomicInteger attempts = new AtomicInteger();
+        assertEquals("ok", retryPolicy.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+            }
+            return "ok";
+        }));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void stopsAtMaxAttempts() {
+        assertEquals(2, failingCall());
+    }
+
+    @Test
+    void clientErrorsAndInvalidAddressesAreNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+        assertThrows(HttpClientErrorException.class, () -> retryPolicy.execute(() -> {
+            attempts.incrementAndGet();
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+        }));
+        assertThrows(InvalidAddressException.class, () -> retryPolicy.execute(() -> {
+            attempts.incrementAndGet();
+            throw new InvalidAddressException("No results found for address: nowhere");
+        }));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void asyncClientErrorsAreNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<String> result = retryPolicy.executeAsync(() -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.failedFuture(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+        });
+        ExecutionException error = assertThrows(ExecutionException.class, result::get);
+        assertInstanceOf(HttpClientErrorException.class, error.getCause());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void asyncServerErrorsAreRetried() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<String> result = retryPolicy.executeAsync(() -> attempts.incrementAndGet() == 1
+                ? CompletableFuture.failedFuture(new HttpServerErrorException(HttpStatus.BAD_GATEWAY))
+                : CompletableFuture.completedFuture("ok"));
+        assertEquals("ok", result.get());
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void exhaustedBudgetIsRefilledByTenPercentOfFirstAttempts() {
+        // The budget starts at its cap of two tokens and deposits beyond the cap are lost.
+        assertEquals(2, failingCall());
+        assertEquals(2, failingCall());
+        assertEquals(1, failingCall());
+
+        // 0.2 tokens are left; seven successful calls and the next failed call add up to exactly one token.
+        succeed(7);
+        assertEquals(2, failingCall());
+        assertEquals(1, failingCall());
+    }
+
+    @Test
+    void budgetIsCappedAtMaxTokens() {
+        succeed(100);
+        assertEquals(2, failingCall());
+        assertEquals(2, failingCall());
+        assertEquals(1, failingCall());
+    }
+
+    @Test
+    void backoffIsDrawnBelowTheExponentialBoundAndCappedAtTheMaximum() {
+        ReflectionTestUtils.setField(retryPolicy, "maxAttempts", 10);
+        ReflectionTestUtils.setField(retryPolicy, "initialBackoffMs", 100L);
+        ReflectionTestUtils.setField(retryPolicy, "maxBackoffMs", 1000L);
+        ReflectionTestUtils.setField(retryPolicy, "budgetMaxTokens", 10000.0);
+        retryPolicy.init();
+        HttpServerErrorException error = new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+        long[] bounds = {100, 200, 400, 800, 1000, 1000};
+        for (int attempt = 1; attempt <= bounds.length; attempt++) {
+            long longest = 0;
+            for (int draw = 0; draw < 1000; draw++) {
+                long backoffMs = nextBackoff(attempt, error);
+                assertTrue(backoffMs >= 0 && backoffMs <= bounds[attempt - 1],
+                        "attempt " + attempt + " backed off " + backoffMs + " ms");
+                longest = Math.max(longest, backoffMs);
+            }
+            assertTrue(longest > bounds[attempt - 1] / 2, "attempt " + attempt + " never backed off long");
+        }
+    }
+
+    @Test
+    void disabledPolicyNeverRetries() {
+        ReflectionTestUtils.setField(retryPolicy, "enabled", false);
+        assertEquals(1, failingCall());
+    }
+
+    private long nextBackoff(int attemptNumber, Throwable error) {
+        Long backoffMs = ReflectionTestUtils.invokeMethod(retryPolicy, "nextBackoff", attemptNumber, error);
+        return backoffMs;
+    }
+
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertEquals("ok", retryPolicy.execute(() -> "ok"));
+        }
+    }
+
+    /**
+     * Runs a call whose attempts all fail with a server error.
+     *
+     * @return the number of attempts made.
+     */
+    private int failingCall() {
+        AtomicInteger attempts = new AtomicInteger();
+        assertThrows(HttpServerErrorException.class, () -> retryPolicy.execute(() -> {
+            attempts.incrementAndGet();
+            throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+        }));
+        return attempts.get();
+    }
+}
@@ -0,0 +1,65 @@
+package com.caching.service.spatial;
+
+import com.caching.dto.out.AddressDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CoordinateCacheTest {
+
+    @Test
+    void storesEvictsAndClearsCoordinateKeys() {
+        CoordinateCache cache = new CoordinateCache("reverse-geocoding", 16, null, null);
+        cache.put(Arrays.asList(48.8566, 2.3522), new AddressDTO("Paris"));
+        cache.put(Arrays.asList(28.6139, 77.2090), new AddressDTO("Delhi"));
+
+        assertEquals("Paris", cache.get(List.of(48.8566, 2.3522), AddressDTO.class).getAddress());
+        assertNotNull(cache.getWriteTime(Arrays.asList(48.8566, 2.3522)));
+        assertEquals(2, cache.size());
+
+        cache.evict(Arrays.asList(48.8566, 2.3522));
+        assertNull(cache.get(Arrays.asList(48.8566, 2.3522)));
+        assertNull(cache.getWriteTime(Arrays.asList(48.8566, 2.3522)));
+
+        cache.clear();
+        assertNull(cache.get(Arrays.asList(28.6139, 77.2090)));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void rejectsUnsupportedEntries() {
+        CoordinateCache cache = new CoordinateCache("reverse-geocoding", 16, null, null);
+        assertThrows(IllegalArgumentException.class, () -> cache.put("u4pruy", new AddressDTO("Paris")));
+        assertThrows(IllegalArgumentException.class, () -> cache.put(Arrays.asList(95.0, 0.0), new AddressDTO("Pole")));
+        assertThrows(IllegalArgumentException.class, () -> cache.put(Arrays.asList(1.0, 1.0), null));
+        assertNull(cache.get("u4pruy"));
+        assertNull(cache.getWriteTime("u4pruy"));
+    }
+
+    @Test
+    void loaderIsOnlyCalledOnAMiss() {
+        CoordinateCache cache = new CoordinateCache("reverse-geocoding", 16, null, null);
+        List<Double> paris = Arrays.asList(48.8566, 2.3522);
+        assertEquals("Paris", cache.get(paris, () -> new AddressDTO("Paris")).getAddress());
+        assertEquals("Paris", cache.get(paris, () -> new AddressDTO("Elsewhere")).getAddress());
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get(Arrays.asList(1.0, 1.0), () -> {
+            throw new IllegalStateException("upstream down");
+        }));
+    }
+
+    @Test
+    void expiredEntriesAreAbsent() throws InterruptedException {
+        CoordinateCache cache = new CoordinateCache("reverse-geocoding", 16, Duration.ofMillis(1), null);
+        cache.put(Arrays.asList(48.8566, 2.3522), new AddressDTO("Paris"));
+        Thread.sleep(10);
+        assertNull(cache.get(Arrays.asList(48.8566, 2.3522)));
+    }
+}
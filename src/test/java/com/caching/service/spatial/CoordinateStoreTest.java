@@ -0,0 +1,121 @@
+package com.caching.service.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoordinateStoreTest {
+
+    private static final long NONE = Long.MAX_VALUE;
+
+    @Test
+    void storesReplacesAndRemovesExactCoordinates() {
+        CoordinateStore<String> store = new CoordinateStore<>(16, NONE, NONE);
+        assertTrue(store.put(28.6139, 77.2090, "Delhi"));
+        assertTrue(store.put(48.8566, 2.3522, "Paris"));
+        assertTrue(store.put(28.6139, 77.2090, "New Delhi"));
+
+        assertEquals("New Delhi", store.get(28.6139, 77.2090));
+        assertEquals("Paris", store.get(48.8566, 2.3522));
+        assertTrue(store.getWriteTime(48.8566, 2.3522) > 0);
+        assertEquals(2, store.size());
+
+        store.remove(28.6139, 77.2090);
+        assertNull(store.get(28.6139, 77.2090));
+        assertEquals(-1, store.getWriteTime(28.6139, 77.2090));
+        assertEquals(1, store.size());
+
+        store.clear();
+        assertNull(store.get(48.8566, 2.3522));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void pointsSharingAQuantizedKeyAreNotConfused() {
+        CoordinateStore<String> store = new CoordinateStore<>(16, NONE, NONE);
+        store.put(10.00000001, 20.0, "first");
+        assertNull(store.get(10.00000002, 20.0));
+        store.put(10.00000002, 20.0, "second");
+        assertEquals("first", store.get(10.00000001, 20.0));
+        assertEquals("second", store.get(10.00000002, 20.0));
+    }
+
+    @Test
+    void rejectsOutOfRangeCoordinatesAndNullValues() {
+        CoordinateStore<String> store = new CoordinateStore<>(16, NONE, NONE);
+        assertFalse(store.put(91, 0, "north"));
+        assertFalse(store.put(0, -181, "west"));
+        assertFalse(store.put(Double.NaN, 0, "nowhere"));
+        assertFalse(store.put(0, 0, null));
+        assertNull(store.get(91, 0));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void fullStoreEvictsTheOldestWrittenEntry() {
+        CoordinateStore<Integer> store = new CoordinateStore<>(4, NONE, NONE);
+        for (int i = 0; i < 4; i++) {
+            store.put(i, i, i);
+        }
+        store.put(0, 0, 10);
+        store.put(4, 4, 4);
+
+        assertNull(store.get(1, 1));
+        assertEquals(10, store.get(0, 0));
+        assertEquals(4, store.get(4, 4));
+        assertEquals(4, store.size());
+    }
+
+    @Test
+    void replacingOneEntryWrapsTheRingWithoutLosingIt() {
+        CoordinateStore<Integer> store = new CoordinateStore<>(4, NONE, NONE);
+        store.put(1, 1, -1);
+        for (int i = 0; i < 1000; i++) {
+            store.put(2, 2, i);
+            assertEquals(i, store.get(2, 2));
+        }
+        assertEquals(-1, store.get(1, 1));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void expiredEntriesAreAbsent() throws InterruptedException {
+        CoordinateStore<String> afterWrite = new CoordinateStore<>(16, 1, NONE);
+        CoordinateStore<String> afterAccess = new CoordinateStore<>(16, NONE, 1);
+        afterWrite.put(28.6, 77.2, "Delhi");
+        afterAccess.put(28.6, 77.2, "Delhi");
+        Thread.sleep(10);
+        assertNull(afterWrite.get(28.6, 77.2));
+        assertNull(afterAccess.get(28.6, 77.2));
+        assertEquals(-1, afterWrite.getWriteTime(28.6, 77.2));
+    }
+
+    @Test
+    void matchesAReferenceMapUnderRandomOperations() {
+        CoordinateStore<Integer> store = new CoordinateStore<>(64, NONE, NONE);
+        Map<Integer, Integer> reference = new HashMap<>();
+        Random random = new Random(42);
+        for (int operation = 0; operation < 20000; operation++) {
+            int point = random.nextInt(48);
+            if (random.nextInt(3) == 0) {
+                store.remove(point, -point);
+                reference.remove(point);
+            } else {
+                int value = random.nextInt();
+                store.put(point, -point, value);
+                reference.put(point, value);
+            }
+        }
+        for (int point = 0; point < 48; point++) {
+            assertEquals(reference.get(point), store.get(point, -point), "point " + point);
+        }
+        assertEquals(reference.size(), store.size());
+    }
+}
@@ -0,0 +1,55 @@
+package com.caching.service.spatial;
+
+import com.caching.dto.out.AddressDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpatialAddressIndexTest {
+
+    private SpatialAddressIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SpatialAddressIndex();
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "radiusMeters", 25d);
+        ReflectionTestUtils.setField(index, "maxPoints", 3);
+        ReflectionTestUtils.setField(index, "maxAgeMs", 60000L);
+        index.init();
+    }
+
+    @Test
+    void answersLookupsNearAResolvedPoint() {
+        index.add(48.8566, 2.3522, new AddressDTO("Paris"));
+        assertEquals("Paris", index.findNearby(48.85661, 2.35221).getAddress());
+        assertNull(index.findNearby(48.9, 2.3522));
+    }
+
+    @Test
+    void fullIndexEvictsTheOldestPoint() {
+        for (int i = 0; i < 4; i++) {
+            index.add(10 + i, 20, new AddressDTO("point-" + i));
+        }
+        assertNull(index.findNearby(10, 20));
+        assertEquals("point-3", index.findNearby(13, 20).getAddress());
+    }
+
+    @Test
+    void reResolvingTheSamePointDoesNotGrowTheInsertionOrder() {
+        index.add(28.6139, 77.2090, new AddressDTO("Delhi"));
+        for (int i = 0; i < 10000; i++) {
+            index.add(48.8566, 2.3522, new AddressDTO("Paris " + i));
+        }
+        Queue<?> insertionOrder = (Queue<?>) ReflectionTestUtils.getField(index, "insertionOrder");
+        assertTrue(insertionOrder.size() < 2000, "insertion order holds " + insertionOrder.size());
+        assertEquals("Paris 9999", index.findNearby(48.8566, 2.3522).getAddress());
+        assertEquals("Delhi", index.findNearby(28.6139, 77.2090).getAddress());
+    }
+}
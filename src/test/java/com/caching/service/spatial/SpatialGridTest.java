@@ -0,0 +1,62 @@
+package com.caching.service.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpatialGridTest {
+
+    @Test
+    void findsTheNearestPointWithinTheRadius() {
+        SpatialGrid<String> grid = new SpatialGrid<>(25);
+        grid.put(48.85660, 2.35220, "near");
+        grid.put(48.85670, 2.35220, "nearest");
+        grid.put(48.86000, 2.35220, "far");
+
+        SpatialGrid.Match<String> match = grid.findNearest(48.85671, 2.35220, value -> true);
+        assertEquals("nearest", match.getValue());
+        assertTrue(match.getDistanceMeters() < 2);
+        assertEquals("near", grid.findNearest(48.85671, 2.35220, value -> !value.equals("nearest")).getValue());
+        assertNull(grid.findNearest(48.87000, 2.35220, value -> true));
+    }
+
+    @Test
+    void putReplacesThePointAtTheSameCoordinates() {
+        SpatialGrid<String> grid = new SpatialGrid<>(25);
+        assertNull(grid.put(28.6139, 77.2090, "first"));
+        assertEquals("first", grid.put(28.6139, 77.2090, "second"));
+        assertFalse(grid.remove(28.6139, 77.2090, "first"));
+        assertTrue(grid.remove(28.6139, 77.2090, "second"));
+        assertNull(grid.findNearest(28.6139, 77.2090, value -> true));
+    }
+
+    @Test
+    void pointsAddedWhileCellsAreEmptiedAreNotLost() throws InterruptedException {
+        SpatialGrid<Integer> grid = new SpatialGrid<>(25);
+        int points = 20000;
+        AtomicInteger removed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        Thread purger = new Thread(() -> {
+            while (done.getCount() > 0) {
+                removed.addAndGet(grid.removeIf(value -> true));
+            }
+        });
+        purger.start();
+        for (int i = 0; i < points; i++) {
+            grid.put(10 + i * 1e-9, 20, i);
+        }
+        done.countDown();
+        purger.join();
+
+        assertEquals(points, removed.get() + grid.removeIf(value -> true));
+        assertNull(grid.put(10, 20, -1));
+        assertNotNull(grid.findNearest(10, 20, value -> true));
+    }
+}